@@ -0,0 +1,441 @@
+/**
+ * ConcurrentHeap.java is a thread safe max priority queue built on Heap, for many producer and consumer threads.
+ * It has two modes.
+ *
+ * RELAXED is a MultiQueue (Rihani, Sanders and Dementiev, 2015). The values are spread over c * P sub-heaps,
+ * each with its own lock. addNode locks a random sub-heap, moving to another if the lock is taken, and
+ * extractMax samples two random sub-heaps and takes from the one with the larger top. Threads rarely touch the
+ * same lock, so throughput scales with threads, but extractMax returns one of the largest values rather than
+ * always the largest. On average the value returned ranks O(c * P) from the top.
+ *
+ * STRICT keeps a single Heap and uses flat combining (Hendler et al., 2010). A thread publishes its operation
+ * in a slot, and whichever thread holds the lock applies every published operation before releasing it.
+ * The heap stays exact and linearizable, and one thread does a whole batch of operations while the heap is in its
+ * cache instead of the lock being handed from thread to thread for each one.
+ *
+ * In both modes extractMax returns null when the queue is empty.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConcurrentHeap<T extends Comparable<T>> {
+
+	/**
+	 * Mode selects between the relaxed MultiQueue and the strict flat combining queue.
+	 */
+	public enum Mode {RELAXED, STRICT}
+
+	// Sub-heaps per processor in RELAXED mode.
+	private static final int DEFAULT_QUEUES_PER_THREAD = 2;
+
+	// Spins a waiting thread makes in STRICT mode between yields.
+	private static final int SPINS_BEFORE_YIELD = 64;
+
+	/**
+	 * SubHeap is one heap of the MultiQueue with its lock. top is a copy of the heap's maximum that is read
+	 * without the lock to choose between sub-heaps, and is updated whenever the heap changes.
+	 */
+	private static final class SubHeap<T extends Comparable<T>> {
+		final ReentrantLock lock = new ReentrantLock();
+		final Heap<T> heap = new Heap<T>();
+		volatile T top;
+	}
+
+	/**
+	 * Request is an operation published for the combiner. Each thread reuses one request.
+	 */
+	private static final class Request<T> {
+		boolean add;
+		T value;
+		T result;
+		volatile boolean done;
+	}
+
+	private final Mode mode;
+	private final LongAdder size = new LongAdder();
+
+	// RELAXED mode.
+	private final SubHeap<T>[] queues;
+
+	// STRICT mode.
+	private final Heap<T> heap;
+	private final ReentrantLock combinerLock;
+	private final AtomicReferenceArray<Request<T>> slots;
+	private final ThreadLocal<Request<T>> requests;
+
+	/**
+	 * ConcurrentHeap(mode) creates an empty queue. RELAXED mode uses 2 sub-heaps per processor.
+	 * @param mode This is RELAXED or STRICT.
+	 */
+	public ConcurrentHeap(Mode mode) {
+		this(mode, DEFAULT_QUEUES_PER_THREAD * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * ConcurrentHeap(mode, queues) creates an empty queue.
+	 * @param mode This is RELAXED or STRICT.
+	 * @param queues This is the number of sub-heaps in RELAXED mode, or the number of publication slots in STRICT mode.
+	 * It should be at least twice the number of threads using the queue.
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentHeap(Mode mode, int queues) {
+		if (queues < 2) {
+			throw new IllegalArgumentException("Error: at least 2 queues are needed.");
+		}
+		this.mode = mode;
+		if (mode == Mode.RELAXED) {
+			this.queues = (SubHeap<T>[]) new SubHeap<?>[queues];
+			for (int i = 0; i < queues; i++) {
+				this.queues[i] = new SubHeap<T>();
+			}
+			this.heap = null;
+			this.combinerLock = null;
+			this.slots = null;
+			this.requests = null;
+		}
+		else {
+			this.queues = null;
+			this.heap = new Heap<T>();
+			this.combinerLock = new ReentrantLock();
+			this.slots = new AtomicReferenceArray<Request<T>>(queues);
+			this.requests = ThreadLocal.withInitial(Request::new);
+		}
+	}
+
+	/**
+	 * size returns the number of values in the queue. It is exact only when no other thread is changing the queue.
+	 * @return int The size of the queue.
+	 */
+	public int size() {
+		return (int) Math.min(Integer.MAX_VALUE, Math.max(0, size.sum()));
+	}
+
+	/**
+	 * isEmpty checks if the queue is empty. It is exact only when no other thread is changing the queue.
+	 * @return boolean if the queue is empty.
+	 */
+	public boolean isEmpty() {
+		return size.sum() <= 0;
+	}
+
+	/**
+	 * addNode takes a value and adds it to the queue.
+	 * @param value This is the value that will be added to the queue.
+	 */
+	public void addNode(T value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Error: null values can't be added.");
+		}
+		if (mode == Mode.RELAXED) {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			while (true) {
+				SubHeap<T> queue = queues[random.nextInt(queues.length)];
+				if (queue.lock.tryLock()) {
+					try {
+						queue.heap.addNode(value);
+						queue.top = top(queue.heap);
+					}
+					finally {
+						queue.lock.unlock();
+					}
+					break;
+				}
+			}
+		}
+		else {
+			combine(true, value);
+		}
+		size.increment();
+	}
+
+	/**
+	 * extractMax deletes the maximum value of the queue and returns it. In RELAXED mode it is one of the largest values.
+	 * @return T This is the maximum value in the queue, or null if the queue is empty.
+	 */
+	public T extractMax() {
+		T max = mode == Mode.RELAXED ? relaxedExtractMax() : combine(false, null);
+		if (max != null) {
+			size.decrement();
+		}
+		return max;
+	}
+
+	/**
+	 * relaxedExtractMax takes the top of the better of two random sub-heaps. When both samples come back empty it
+	 * checks every sub-heap in turn, so null is only returned when every sub-heap was seen to be empty.
+	 * @return T A large value from the queue, or null.
+	 */
+	private T relaxedExtractMax() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int attempt = 0; attempt < queues.length; attempt++) {
+			SubHeap<T> a = queues[random.nextInt(queues.length)];
+			SubHeap<T> b = queues[random.nextInt(queues.length)];
+			T topA = a.top;
+			T topB = b.top;
+			if (topA == null && topB == null) {
+				if (isEmpty()) {
+					break;
+				}
+				continue;
+			}
+			SubHeap<T> queue = topB == null || (topA != null && topA.compareTo(topB) >= 0) ? a : b;
+			if (queue.lock.tryLock()) {
+				try {
+					if (!queue.heap.isEmpty()) {
+						return extract(queue);
+					}
+				}
+				finally {
+					queue.lock.unlock();
+				}
+			}
+		}
+		for (SubHeap<T> queue : queues) {
+			queue.lock.lock();
+			try {
+				if (!queue.heap.isEmpty()) {
+					return extract(queue);
+				}
+			}
+			finally {
+				queue.lock.unlock();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * extract removes the top of a locked, non-empty sub-heap and updates its top.
+	 */
+	private T extract(SubHeap<T> queue) {
+		try {
+			T max = queue.heap.extractMax();
+			queue.top = top(queue.heap);
+			return max;
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Error: sub-heap emptied while locked.", e);
+		}
+	}
+
+	/**
+	 * combine publishes an operation and waits for it to be applied, becoming the combiner whenever the lock is free.
+	 * @param add This is true for addNode and false for extractMax.
+	 * @param value This is the value to add.
+	 * @return T The extracted value, or null.
+	 */
+	private T combine(boolean add, T value) {
+		Request<T> request = requests.get();
+		request.add = add;
+		request.value = value;
+		request.result = null;
+		request.done = false;
+		int slot = (int) (Thread.currentThread().getId() % slots.length());
+		while (!slots.compareAndSet(slot, null, request)) {
+			// The slot is shared with another thread. Help apply the pending requests, then try the next slot.
+			tryCombine();
+			slot = slot + 1 == slots.length() ? 0 : slot + 1;
+		}
+		int spins = 0;
+		while (!request.done) {
+			if (!tryCombine()) {
+				// Yield now and then so a combiner that was descheduled can finish when threads outnumber processors.
+				if (++spins % SPINS_BEFORE_YIELD == 0) {
+					Thread.yield();
+				}
+				else {
+					Thread.onSpinWait();
+				}
+			}
+		}
+		T result = request.result;
+		request.value = null;
+		request.result = null;
+		return result;
+	}
+
+	/**
+	 * tryCombine applies every published request if the lock is free.
+	 * @return boolean If this thread was the combiner.
+	 */
+	private boolean tryCombine() {
+		if (!combinerLock.tryLock()) {
+			return false;
+		}
+		try {
+			for (int i = 0; i < slots.length(); i++) {
+				Request<T> request = slots.get(i);
+				if (request == null) {
+					continue;
+				}
+				if (request.add) {
+					heap.addNode(request.value);
+				}
+				else if (!heap.isEmpty()) {
+					request.result = heap.extractMax();
+				}
+				slots.set(i, null);
+				request.done = true;
+			}
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Error: heap emptied while combining.", e);
+		}
+		finally {
+			combinerLock.unlock();
+		}
+		return true;
+	}
+
+	private static <T extends Comparable<T>> T top(Heap<T> heap) {
+		try {
+			return heap.isEmpty() ? null : heap.findMax();
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * queue creates one of the benchmarked queues, wrapped as an add and an extract so every one runs the same loop.
+	 * @param name This is the name of the queue.
+	 * @param threads This is the number of threads that will use it.
+	 * @return Operations The queue's operations.
+	 */
+	private static Operations queue(String name, int threads) {
+		switch (name) {
+			case "locked Heap":
+				final Heap<Integer> locked = new Heap<Integer>();
+				final ReentrantLock lock = new ReentrantLock();
+				return new Operations() {
+					public void add(int value) {
+						lock.lock();
+						try {
+							locked.addNode(value);
+						}
+						finally {
+							lock.unlock();
+						}
+					}
+
+					public Integer extract() {
+						lock.lock();
+						try {
+							return locked.isEmpty() ? null : locked.extractMax();
+						}
+						catch (IOException e) {
+							throw new IllegalStateException(e);
+						}
+						finally {
+							lock.unlock();
+						}
+					}
+				};
+			case "PriorityBlockingQueue":
+				final PriorityBlockingQueue<Integer> blocking = new PriorityBlockingQueue<Integer>(11,
+						Collections.reverseOrder());
+				return new Operations() {
+					public void add(int value) {
+						blocking.add(value);
+					}
+
+					public Integer extract() {
+						return blocking.poll();
+					}
+				};
+			default:
+				Mode mode = name.endsWith("STRICT") ? Mode.STRICT : Mode.RELAXED;
+				final ConcurrentHeap<Integer> concurrent = new ConcurrentHeap<Integer>(mode, Math.max(4, 2 * threads));
+				return new Operations() {
+					public void add(int value) {
+						concurrent.addNode(value);
+					}
+
+					public Integer extract() {
+						return concurrent.extractMax();
+					}
+				};
+		}
+	}
+
+	/**
+	 * Main benchmarks ConcurrentHeap against a Heap behind one lock and a PriorityBlockingQueue. The queue is filled
+	 * with n values and then every thread runs the same number of operations, alternating addNode and extractMax.
+	 * @param args This is the thread counts (comma separated), the starting size and the operations per thread.
+	 * @throws InterruptedException Error when interrupted while waiting for the threads.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		String[] threadCounts = (args.length > 0 ? args[0] : "1,2,4,8,32").split(",");
+		int initial = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+		final int operations = args.length > 2 ? Integer.parseInt(args[2]) : 200000;
+		String[] names = {"locked Heap", "PriorityBlockingQueue", "ConcurrentHeap STRICT", "ConcurrentHeap RELAXED"};
+
+		System.out.println(String.format("%-24s %8s %12s", "queue", "threads", "Mops/s"));
+		for (String count : threadCounts) {
+			int threads = Integer.parseInt(count.trim());
+			for (String name : names) {
+				final Operations queue = queue(name, threads);
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < initial; i++) {
+					queue.add(random.nextInt());
+				}
+				final CountDownLatch start = new CountDownLatch(1);
+				final AtomicInteger missing = new AtomicInteger();
+				List<Thread> workers = new ArrayList<Thread>();
+				for (int t = 0; t < threads; t++) {
+					Thread worker = new Thread(() -> {
+						ThreadLocalRandom local = ThreadLocalRandom.current();
+						try {
+							start.await();
+						}
+						catch (InterruptedException e) {
+							return;
+						}
+						for (int i = 0; i < operations; i += 2) {
+							queue.add(local.nextInt());
+							if (queue.extract() == null) {
+								missing.incrementAndGet();
+							}
+						}
+					});
+					worker.start();
+					workers.add(worker);
+				}
+				long begin = System.nanoTime();
+				start.countDown();
+				for (Thread worker : workers) {
+					worker.join();
+				}
+				long nanos = System.nanoTime() - begin;
+				if (missing.get() > 0) {
+					throw new IllegalStateException("Error: " + name + " came back empty " + missing.get() + " times.");
+				}
+				System.out.println(String.format("%-24s %8d %12.2f", name, threads,
+						(double) threads * operations * 1000 / nanos));
+			}
+		}
+	}
+
+	/**
+	 * Operations is the add and extract of one of the benchmarked queues.
+	 */
+	private interface Operations {
+		void add(int value);
+
+		Integer extract();
+	}
+}
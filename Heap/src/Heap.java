@@ -3,19 +3,28 @@
  * The heap is built on an arraylist and utililzes Java generics.
  * 
  * @author Asher Muse
- * @version 1.4
+ * @version 1.6
  * @since 2020-05-03
  */
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Scanner;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 
-public class Heap<T extends Comparable<T>> {
+public class Heap<T extends Comparable<T>> implements Iterable<T> {
 
 	private ArrayList<T> heap = new ArrayList<T>();
+
+	// Counts changes to the heap, so iterators can detect that it was modified under them.
+	private int modCount;
 	
 	/**
 	 * Heap() is the default constructor and creates an empty arraylist to represent the heap.
@@ -52,7 +61,7 @@ public class Heap<T extends Comparable<T>> {
 	 * @return boolean This returns if the index is valid.
 	 */
 	private boolean isOutOfBounds(int index) {
-		return index > heap.size() || index < 0;
+		return index >= heap.size() || index < 0;
 	}
 	
 	/**
@@ -78,22 +87,30 @@ public class Heap<T extends Comparable<T>> {
 	
 	/**
 	 * maxHeapify is given an index of a node and converts that node and underlying nodes into a heap.
+	 * The node is lifted out, leaving a hole that moves down as larger children are moved up into it,
+	 * so each level costs one write instead of a swap and the loop needs no recursion.
 	 * @param parent This is the top node to "heapify".
 	 */
 	private void maxHeapify(int parent) {
-		int left = findLeft(parent);
-		int right = findRight(parent);
-		int max = parent;
-		
-		if(left < heap.size() && heap.get(left).compareTo(heap.get(max)) > 0) {
-			max = left;
-		}
-		if(right < heap.size() && heap.get(right).compareTo(heap.get(max)) > 0) {
-			max = right;
+		int size = heap.size();
+		T value = heap.get(parent);
+		int hole = parent;
+		int left = findLeft(hole);
+		while(left < size) {
+			int max = left;
+			int right = findRight(hole);
+			if(right < size && heap.get(right).compareTo(heap.get(left)) > 0) {
+				max = right;
+			}
+			if(heap.get(max).compareTo(value) <= 0) {
+				break;
+			}
+			heap.set(hole, heap.get(max));
+			hole = max;
+			left = findLeft(hole);
 		}
-		if (max != parent) {
-			Collections.swap(heap, max, parent);
-			maxHeapify(max);
+		if (hole != parent) {
+			heap.set(hole, value);
 		}
 	}
 	
@@ -135,13 +152,22 @@ public class Heap<T extends Comparable<T>> {
 	
 	/**
 	 * shiftNodeUp is used when a new node is added and fixes the heap with much less overhead than rebuilding the heap.
+	 * Like maxHeapify it moves a hole instead of swapping, here moving smaller parents down into it.
 	 * @param index This is the index of the node to be checked if it needs to move up.
 	 */
 	private void shiftNodeUp(int index) {
-		int parent = findParent(index);
-		if(index != 0 && heap.get(index).compareTo(heap.get(parent)) > 0 ) {
-			Collections.swap(heap, index, parent);
-			shiftNodeUp(parent);
+		T value = heap.get(index);
+		int hole = index;
+		while(hole > 0) {
+			int parent = findParent(hole);
+			if(heap.get(parent).compareTo(value) >= 0) {
+				break;
+			}
+			heap.set(hole, heap.get(parent));
+			hole = parent;
+		}
+		if (hole != index) {
+			heap.set(hole, value);
 		}
 	}
 			
@@ -150,12 +176,15 @@ public class Heap<T extends Comparable<T>> {
 	 * @param value This is the value that will be added to the heap.
 	 */
 	public void addNode(T value) {
+		modCount++;
 		heap.add(value);
 		shiftNodeUp(heap.size()-1);
 	}
 	
 	/**
-	 * removeNodeByIndex removes the node at a given index.
+	 * removeNodeByIndex removes the node at a given index in O(log n).
+	 * The last node is moved into the removed node's place, so nothing is shifted, and is then moved
+	 * up or down until the heap is valid again.
 	 * @param index This is the index that will be removed from the heap.
 	 * @throws IOException Error when the index is out of bounds.
 	 */
@@ -163,8 +192,18 @@ public class Heap<T extends Comparable<T>> {
 		if(isOutOfBounds(index)) {
 			throw new IOException("Error in removal: data not found or index out of bounds.");
 		}
-		heap.remove(index);
-		buildMaxHeap();
+		modCount++;
+		T last = heap.remove(heap.size()-1);
+		if(index == heap.size()) {
+			return;
+		}
+		heap.set(index, last);
+		if(index > 0 && last.compareTo(heap.get(findParent(index))) > 0) {
+			shiftNodeUp(index);
+		}
+		else {
+			maxHeapify(index);
+		}
 	}
 	
 	/**
@@ -211,6 +250,14 @@ public class Heap<T extends Comparable<T>> {
 		return true;
 	}
 	
+	/**
+	 * clear removes every value from the heap.
+	 */
+	public void clear() {
+		modCount++;
+		heap.clear();
+	}
+	
 	/**
 	 * isEmpty checks if the heap is empty.
 	 * @return boolean if the heap is empty.
@@ -232,15 +279,19 @@ public class Heap<T extends Comparable<T>> {
 	}
 	
 	/**
-	 * deleteMax() remove the maximum value from the heap.
+	 * deleteMax() remove the maximum value from the heap in O(log n) by moving the last node to the root.
 	 * @throws IOException Error when heap is empty.
 	 */
 	public void deleteMax() throws IOException {
 		if(isEmpty()) {
 			throw new IOException("Error in deletion: the heap is empty");
 		}
-		heap.remove(0);
-		maxHeapify(0);
+		modCount++;
+		T last = heap.remove(heap.size()-1);
+		if(!heap.isEmpty()) {
+			heap.set(0, last);
+			maxHeapify(0);
+		}
 	}
 	
 	/**
@@ -256,6 +307,7 @@ public class Heap<T extends Comparable<T>> {
 	
 	/**
 	 * extractMin deletes the minimum value of the heap and returns it.
+	 * The minimum is always a leaf, so only the second half of the array is searched.
 	 * @return T This is the minimum value in the heap.
 	 * @throws IOException Error when heap is empty.
 	 */
@@ -271,8 +323,7 @@ public class Heap<T extends Comparable<T>> {
 				minIndex = i;
 			}
 		}
-		heap.remove(minIndex);
-		buildMaxHeap();
+		removeNodeByIndex(minIndex);
 		return min;
 	}
 		
@@ -286,13 +337,8 @@ public class Heap<T extends Comparable<T>> {
 		if (isOutOfBounds(index) || value.compareTo(heap.get(index)) <= 0) {
 			throw new IOException("Error: new value is not larger or index is out of bounds");
 		}
-		int parent = findParent(index);
 		heap.set(index, value);
-		while(parent > 0 && heap.get(index).compareTo(heap.get(parent)) > 0) {
-			Collections.swap(heap, index, parent);
-			index = parent;
-			parent = findParent(index);
-		}
+		shiftNodeUp(index);
 	}
 	
 	/**
@@ -325,8 +371,116 @@ public class Heap<T extends Comparable<T>> {
 		else {
 			increaseNodeValue(index, value);
 		}
+		// Only once the update has succeeded, so a rejected one doesn't invalidate open iterators.
+		modCount++;
 	}
 	
+	/**
+	 * iterator returns the values in descending order without changing the heap. It keeps a small frontier heap of
+	 * the indices whose parents have been returned but which haven't been returned themselves. The largest of those
+	 * is always the next value, so the first k values cost O(k log k) no matter how large the heap is.
+	 * The iterator throws ConcurrentModificationException if the heap is changed while it is in use.
+	 * @return Iterator An iterator over the values from largest to smallest.
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private final int expectedModCount = modCount;
+			// A binary max heap of indices into heap, ordered by the values they point to.
+			private int[] frontier = new int[16];
+			private int count = heap.isEmpty() ? 0 : 1;
+
+			@Override
+			public boolean hasNext() {
+				return count > 0;
+			}
+
+			@Override
+			public T next() {
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				if (count == 0) {
+					throw new NoSuchElementException();
+				}
+				int index = frontier[0];
+				int last = frontier[--count];
+				if (count > 0) {
+					siftFrontierDown(last);
+				}
+				int left = findLeft(index);
+				if (left < heap.size()) {
+					addFrontier(left);
+					if (left + 1 < heap.size()) {
+						addFrontier(left + 1);
+					}
+				}
+				return heap.get(index);
+			}
+
+			private void addFrontier(int index) {
+				if (count == frontier.length) {
+					frontier = Arrays.copyOf(frontier, count * 2);
+				}
+				T value = heap.get(index);
+				int hole = count++;
+				while(hole > 0) {
+					int parent = findParent(hole);
+					if(heap.get(frontier[parent]).compareTo(value) >= 0) {
+						break;
+					}
+					frontier[hole] = frontier[parent];
+					hole = parent;
+				}
+				frontier[hole] = index;
+			}
+
+			private void siftFrontierDown(int index) {
+				T value = heap.get(index);
+				int hole = 0;
+				int left = findLeft(hole);
+				while(left < count) {
+					int max = left;
+					if(left + 1 < count && heap.get(frontier[left + 1]).compareTo(heap.get(frontier[left])) > 0) {
+						max = left + 1;
+					}
+					if(heap.get(frontier[max]).compareTo(value) <= 0) {
+						break;
+					}
+					frontier[hole] = frontier[max];
+					hole = max;
+					left = findLeft(hole);
+				}
+				frontier[hole] = index;
+			}
+		};
+	}
+
+	/**
+	 * spliterator returns a spliterator over the values in descending order, backed by iterator.
+	 * @return Spliterator A sized, ordered spliterator over the values.
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return Spliterators.spliterator(iterator(), heap.size(), Spliterator.ORDERED | Spliterator.NONNULL);
+	}
+
+	/**
+	 * forEachUnordered performs an action on every value in the order of the underlying arraylist, which is the fastest
+	 * way to visit every value when the order doesn't matter.
+	 * @param action This is the action to perform.
+	 * @throws ConcurrentModificationException Error when the action changes the heap.
+	 */
+	public void forEachUnordered(Consumer<? super T> action) {
+		int expectedModCount = modCount;
+		for (int i = 0; i < heap.size() && modCount == expectedModCount; i++) {
+			action.accept(heap.get(i));
+		}
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
 	/**
 	 * Main provides the user an environment to test the heap methods.
 	 * @param args This is arguments from the command line.
@@ -340,7 +494,7 @@ public class Heap<T extends Comparable<T>> {
 		System.out.println("Welcome to the Heap API testing environment.");
 		Heap<Integer> userHeap = new Heap<Integer>();
 		
-		String commands = "[0] Quit, [1] Print Heap, [2] removeNodeByValue, [3] removeNodeByIndex\n[4] addNode, [5] extractMax, [6] extractMin, [7] updateNodeValue, [8] randHeap";
+		String commands = "[0] Quit, [1] Print Heap, [2] removeNodeByValue, [3] removeNodeByIndex\n[4] addNode, [5] extractMax, [6] extractMin, [7] updateNodeValue, [8] randHeap\n[9] Print largest values in order";
 
 		// Handle UI
 		while(userCommand != 0) {
@@ -386,11 +540,20 @@ public class Heap<T extends Comparable<T>> {
 			    	System.out.println("Please insert desired size of the random heap: ");
 			    	userInputA = scan.nextInt();
 			    	Random rand = new Random();
-					userHeap.heap.clear();
+					userHeap.clear();
 			    	for(int i = 0; i < userInputA; i++) {
 						userHeap.addNode(rand.nextInt(10000));
 					}
 					break;
+			    case 9: // iterator
+			    	System.out.println("Please insert how many values to print: ");
+			    	userInputA = scan.nextInt();
+			    	Iterator<Integer> values = userHeap.iterator();
+			    	for(int i = 0; i < userInputA && values.hasNext(); i++) {
+			    		System.out.print(values.next() + " ");
+			    	}
+			    	System.out.println("");
+			    	break;
 		    }
 		} // end of while
 		scan.close();
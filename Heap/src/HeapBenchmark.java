@@ -0,0 +1,300 @@
+/**
+ * HeapBenchmark.java compares the generic Heap<Integer> with the primitive IntHeap and LongHeap.
+ * Each iteration adds n seeded random values and then extracts them all. Warmup iterations, at least
+ * WARMUP of them and enough to fill WARMUP_MILLIS, are discarded so the JIT has compiled every heap.
+ * For every heap it reports the time per add and per extract, the bytes allocated per operation
+ * after warmup, and the bytes of memory each stored value keeps alive.
+ * The primitive heaps are cleared and reused between iterations, so after warmup they should allocate nothing.
+ *
+ * With --drain it instead builds a Heap<Integer> and an IntHeap of each size and times extractMax until they are
+ * empty. The time per extract divided by log2(n) stays flat as n grows when draining is O(n log n) overall.
+ *
+ * Usage: HeapBenchmark [--drain] [size ...]
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Random;
+
+public class HeapBenchmark {
+
+	public static final String[] HEAPS = {"Heap<Integer>", "IntHeap", "LongHeap"};
+
+	private static final int WARMUP = 3;
+	private static final long WARMUP_MILLIS = 500;
+	private static final int ITERATIONS = 5;
+	private static final long SEED = 42;
+	private static final int RETAINED_VALUES = 1 << 20;
+
+	// The blackhole. Every extracted value is folded in here so the JIT can't drop the work.
+	private static volatile long sink;
+
+	/**
+	 * Result holds the totals of the measured iterations for one heap and size.
+	 */
+	private static class Result {
+		long addNanos;
+		long extractNanos;
+		long allocated;
+	}
+
+	/**
+	 * run runs one iteration, adding every value and then extracting them all, and adds its costs to the result.
+	 * @param name This is the name of the heap, from HEAPS.
+	 * @param values This is the values to add.
+	 * @param intHeap This is the IntHeap to reuse.
+	 * @param longHeap This is the LongHeap to reuse.
+	 * @param result This is where the costs are added, or null for a warmup iteration.
+	 * @throws IOException Error when a heap runs out of values early.
+	 */
+	private static void run(String name, int[] values, IntHeap intHeap, LongHeap longHeap, Result result) throws IOException {
+		long allocatedBefore = allocatedBytes();
+		long start = System.nanoTime();
+		long sum = 0;
+		long middle;
+		switch (name) {
+			case "Heap<Integer>":
+				Heap<Integer> heap = new Heap<Integer>();
+				for (int value : values) {
+					heap.addNode(value);
+				}
+				middle = System.nanoTime();
+				int top = Integer.MAX_VALUE;
+				for (int i = 0; i < values.length; i++) {
+					int max = heap.extractMax();
+					if (max > top) {
+						throw new IllegalStateException("Error: Heap extracted " + max + " after " + top + ".");
+					}
+					top = max;
+					sum += max;
+				}
+				break;
+			case "IntHeap":
+				intHeap.clear();
+				for (int value : values) {
+					intHeap.addNode(value);
+				}
+				middle = System.nanoTime();
+				long previous = Long.MAX_VALUE;
+				for (int i = 0; i < values.length; i++) {
+					int max = intHeap.extractMax();
+					if (max > previous) {
+						throw new IllegalStateException("Error: IntHeap extracted " + max + " after " + previous + ".");
+					}
+					previous = max;
+					sum += max;
+				}
+				break;
+			case "LongHeap":
+				longHeap.clear();
+				for (int value : values) {
+					longHeap.addNode(value);
+				}
+				middle = System.nanoTime();
+				long last = Long.MAX_VALUE;
+				for (int i = 0; i < values.length; i++) {
+					long max = longHeap.extractMax();
+					if (max > last) {
+						throw new IllegalStateException("Error: LongHeap extracted " + max + " after " + last + ".");
+					}
+					last = max;
+					sum += max;
+				}
+				break;
+			default:
+				throw new IllegalArgumentException("Error: unknown heap " + name + ".");
+		}
+		long end = System.nanoTime();
+		long allocated = allocatedBytes() - allocatedBefore;
+		sink += sum;
+		if (result != null) {
+			result.addNanos += middle - start;
+			result.extractNanos += end - middle;
+			result.allocated += allocated;
+		}
+	}
+
+	/**
+	 * retainedBytes measures how much memory a full heap keeps alive per value, by comparing the used heap
+	 * after a garbage collection with and without it. Small heaps are measured several at a time,
+	 * so that at least RETAINED_VALUES values are held and the collector's granularity doesn't dominate.
+	 * @param name This is the name of the heap, from HEAPS.
+	 * @param values This is the values to add.
+	 * @return double The bytes kept alive per value.
+	 */
+	private static double retainedBytes(String name, int[] values) {
+		Object[] heaps = new Object[Math.max(1, RETAINED_VALUES / Math.max(1, values.length))];
+		long before = usedMemory();
+		for (int h = 0; h < heaps.length; h++) {
+			switch (name) {
+				case "Heap<Integer>":
+					Heap<Integer> boxed = new Heap<Integer>();
+					for (int value : values) {
+						boxed.addNode(value);
+					}
+					heaps[h] = boxed;
+					break;
+				case "IntHeap":
+					IntHeap ints = new IntHeap(values.length);
+					for (int value : values) {
+						ints.addNode(value);
+					}
+					heaps[h] = ints;
+					break;
+				default:
+					LongHeap longs = new LongHeap(values.length);
+					for (int value : values) {
+						longs.addNode(value);
+					}
+					heaps[h] = longs;
+					break;
+			}
+		}
+		long after = usedMemory();
+		sink += heaps[heaps.length - 1].hashCode();
+		return (double) (after - before) / ((long) heaps.length * values.length);
+	}
+
+	/**
+	 * usedMemory returns the bytes of the Java heap in use after a garbage collection.
+	 * @return long The bytes in use.
+	 */
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * allocatedBytes returns the number of bytes the current thread has allocated so far, or 0 when the JVM can't tell.
+	 * @return long The bytes allocated by this thread.
+	 */
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	/**
+	 * run benchmarks every heap at the given sizes and prints a table of the results.
+	 * @param sizes This is the numbers of values to add and extract.
+	 * @throws IOException Error when a heap runs out of values early.
+	 */
+	public static void run(int[] sizes) throws IOException {
+		System.out.println(String.format(Locale.ROOT, "%-14s %10s %12s %12s %12s %12s", "heap", "size", "add ns/op",
+				"extract ns/op", "alloc B/op", "retained B/value"));
+		for (int size : sizes) {
+			int[] values = new Random(SEED).ints(size).toArray();
+			IntHeap intHeap = new IntHeap();
+			LongHeap longHeap = new LongHeap();
+			for (String name : HEAPS) {
+				long warmupEnd = System.nanoTime() + WARMUP_MILLIS * 1000000;
+				for (int i = 0; i < WARMUP || System.nanoTime() < warmupEnd; i++) {
+					run(name, values, intHeap, longHeap, null);
+				}
+				Result result = new Result();
+				for (int i = 0; i < ITERATIONS; i++) {
+					run(name, values, intHeap, longHeap, result);
+				}
+				double ops = (double) size * ITERATIONS;
+				System.out.println(String.format(Locale.ROOT, "%-14s %10d %12.1f %12.1f %12.2f %12.2f", name, size,
+						result.addNanos / ops, result.extractNanos / ops, result.allocated / (2 * ops),
+						retainedBytes(name, values)));
+			}
+		}
+	}
+
+	/**
+	 * drain builds a Heap<Integer> and an IntHeap of each size and times extracting every value, checking the order.
+	 * Each size is drained once for warmup and then timed.
+	 * @param sizes This is the numbers of values in the heaps.
+	 * @throws IOException Error when a heap runs out of values early.
+	 */
+	public static void drain(int[] sizes) throws IOException {
+		System.out.println(String.format(Locale.ROOT, "%-14s %10s %10s %14s %16s", "heap", "size", "drain ms",
+				"ns/extract", "ns/extract/lg n"));
+		for (int size : sizes) {
+			int[] values = new Random(SEED).ints(size).toArray();
+			Integer[] boxed = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				boxed[i] = values[i];
+			}
+			for (String name : new String[] {"Heap<Integer>", "IntHeap"}) {
+				long nanos = 0;
+				for (int pass = 0; pass < 2; pass++) {
+					long sum = 0;
+					int previous = Integer.MAX_VALUE;
+					if (name.equals("IntHeap")) {
+						IntHeap heap = new IntHeap(values);
+						long start = System.nanoTime();
+						while (!heap.isEmpty()) {
+							int max = heap.extractMax();
+							previous = checkDescending(max, previous);
+							sum += max;
+						}
+						nanos = System.nanoTime() - start;
+					}
+					else {
+						Heap<Integer> heap = new Heap<Integer>(boxed);
+						long start = System.nanoTime();
+						while (!heap.isEmpty()) {
+							int max = heap.extractMax();
+							previous = checkDescending(max, previous);
+							sum += max;
+						}
+						nanos = System.nanoTime() - start;
+					}
+					sink += sum;
+				}
+				double perExtract = (double) nanos / size;
+				System.out.println(String.format(Locale.ROOT, "%-14s %10d %10d %14.1f %16.2f", name, size, nanos / 1000000,
+						perExtract, perExtract / (Math.log(size) / Math.log(2))));
+			}
+		}
+	}
+
+	/**
+	 * checkDescending checks that an extracted value is no larger than the one extracted before it.
+	 * @param value This is the extracted value.
+	 * @param previous This is the value extracted before it.
+	 * @return int The extracted value.
+	 */
+	private static int checkDescending(int value, int previous) {
+		if (value > previous) {
+			throw new IllegalStateException("Error: extracted " + value + " after " + previous + ".");
+		}
+		return value;
+	}
+
+	/**
+	 * Main runs the benchmark at the sizes given on the command line, or at a default set of sizes.
+	 * @param args This is --drain to run the drain benchmark, followed by the sizes to run.
+	 * @throws IOException Error when a heap runs out of values early.
+	 */
+	public static void main(String[] args) throws IOException {
+		boolean drain = args.length > 0 && args[0].equals("--drain");
+		int first = drain ? 1 : 0;
+		int[] sizes = drain ? new int[] {100000, 1000000, 10000000} : new int[] {1000, 10000, 100000};
+		if (args.length > first) {
+			sizes = new int[args.length - first];
+			for (int i = first; i < args.length; i++) {
+				sizes[i - first] = Integer.parseInt(args[i]);
+			}
+		}
+		if (drain) {
+			drain(sizes);
+		}
+		else {
+			run(sizes);
+		}
+	}
+}
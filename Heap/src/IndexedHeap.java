@@ -0,0 +1,284 @@
+/**
+ * IndexedHeap.java is an addressable max heap. addNode returns a handle to the new node that stays valid
+ * while the node moves around the heap, so a node can be found, updated or removed without searching for it.
+ * Each handle stores the node's current index and the heap updates it on every move, which makes the handles
+ * a position map. contains is O(1), and updateNodeValue, removeNode, addNode and extractMax are O(log n).
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+public class IndexedHeap<T extends Comparable<T>> {
+
+	/**
+	 * Handle refers to one node of an IndexedHeap. It stays valid until the node is removed.
+	 */
+	public static final class Handle<T> {
+		private T value;
+		private int index;
+		private Object owner;
+
+		private Handle(T value, int index, Object owner) {
+			this.value = value;
+			this.index = index;
+			this.owner = owner;
+		}
+
+		/**
+		 * getValue returns the value of the node, or its last value if it has been removed.
+		 * @return T The value.
+		 */
+		public T getValue() {
+			return value;
+		}
+	}
+
+	private ArrayList<Handle<T>> heap = new ArrayList<Handle<T>>();
+
+	/**
+	 * size returns the size of the heap.
+	 * @return int The size of the heap.
+	 */
+	public int size() {
+		return heap.size();
+	}
+
+	/**
+	 * isEmpty checks if the heap is empty.
+	 * @return boolean if the heap is empty.
+	 */
+	public boolean isEmpty() {
+		return heap.isEmpty();
+	}
+
+	/**
+	 * contains checks if a handle refers to a node that is still in this heap.
+	 * @param handle This is the handle to check.
+	 * @return boolean If the node is in the heap.
+	 */
+	public boolean contains(Handle<T> handle) {
+		return handle != null && handle.owner == this;
+	}
+
+	/**
+	 * siftUp moves a node into the hole at an index and then up, moving smaller parents down until it fits.
+	 * @param hole This is the index of the empty slot.
+	 * @param node This is the node to place.
+	 */
+	private void siftUp(int hole, Handle<T> node) {
+		while (hole > 0) {
+			int parent = (hole - 1) >>> 1;
+			Handle<T> above = heap.get(parent);
+			if (above.value.compareTo(node.value) >= 0) {
+				break;
+			}
+			place(hole, above);
+			hole = parent;
+		}
+		place(hole, node);
+	}
+
+	/**
+	 * siftDown moves a node into the hole at an index and then down, moving larger children up until it fits.
+	 * @param hole This is the index of the empty slot.
+	 * @param node This is the node to place.
+	 */
+	private void siftDown(int hole, Handle<T> node) {
+		int size = heap.size();
+		int half = size >>> 1;
+		while (hole < half) {
+			int child = 2 * hole + 1;
+			Handle<T> max = heap.get(child);
+			if (child + 1 < size && heap.get(child + 1).value.compareTo(max.value) > 0) {
+				max = heap.get(++child);
+			}
+			if (max.value.compareTo(node.value) <= 0) {
+				break;
+			}
+			place(hole, max);
+			hole = child;
+		}
+		place(hole, node);
+	}
+
+	/**
+	 * place stores a node at an index and records the index in its handle.
+	 */
+	private void place(int index, Handle<T> node) {
+		heap.set(index, node);
+		node.index = index;
+	}
+
+	/**
+	 * addNode takes a value and adds it to the heap.
+	 * @param value This is the value that will be added to the heap.
+	 * @return Handle The handle of the new node.
+	 */
+	public Handle<T> addNode(T value) {
+		Handle<T> node = new Handle<T>(value, heap.size(), this);
+		heap.add(node);
+		siftUp(node.index, node);
+		return node;
+	}
+
+	/**
+	 * findMax peeks at the maximum value in the heap.
+	 * @return T This is the maximum value of the heap.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public T findMax() throws IOException {
+		return findMaxHandle().value;
+	}
+
+	/**
+	 * findMaxHandle peeks at the node with the maximum value in the heap.
+	 * @return Handle This is the handle of the maximum node.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public Handle<T> findMaxHandle() throws IOException {
+		if (isEmpty()) {
+			throw new IOException("Error in peek: the heap is empty");
+		}
+		return heap.get(0);
+	}
+
+	/**
+	 * extractMax deletes the maximum value of the heap and returns it.
+	 * @return T This is the maximum value in the heap.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public T extractMax() throws IOException {
+		Handle<T> max = findMaxHandle();
+		removeNode(max);
+		return max.value;
+	}
+
+	/**
+	 * removeNode removes a node by moving the last node into its place and sifting it up or down.
+	 * @param handle This is the handle of the node to remove.
+	 * @throws IOException Error when the node is not in this heap.
+	 */
+	public void removeNode(Handle<T> handle) throws IOException {
+		if (!contains(handle)) {
+			throw new IOException("Error in removal: the node is not in this heap.");
+		}
+		int index = handle.index;
+		Handle<T> last = heap.remove(heap.size() - 1);
+		handle.owner = null;
+		handle.index = -1;
+		if (last == handle) {
+			return;
+		}
+		if (index > 0 && last.value.compareTo(heap.get((index - 1) >>> 1).value) > 0) {
+			siftUp(index, last);
+		}
+		else {
+			siftDown(index, last);
+		}
+	}
+
+	/**
+	 * updateNodeValue changes the value of a node and moves it up or down to keep the heap valid.
+	 * @param handle This is the handle of the node to be changed.
+	 * @param value This is the value that the node will be updated to.
+	 * @throws IOException Error when the node is not in this heap.
+	 */
+	public void updateNodeValue(Handle<T> handle, T value) throws IOException {
+		if (!contains(handle)) {
+			throw new IOException("Error: the node is not in this heap.");
+		}
+		int comparison = value.compareTo(handle.value);
+		handle.value = value;
+		if (comparison > 0) {
+			siftUp(handle.index, handle);
+		}
+		else if (comparison < 0) {
+			siftDown(handle.index, handle);
+		}
+	}
+
+	/**
+	 * isHeap checks if the underlying arraylist meets the confines to be a heap and every handle has its index.
+	 * @return boolean If the underlying array is a heap.
+	 */
+	public boolean isHeap() {
+		for (int i = 0; i < heap.size(); i++) {
+			Handle<T> node = heap.get(i);
+			if (node.index != i || node.owner != this) {
+				return false;
+			}
+			if (i > 0 && node.value.compareTo(heap.get((i - 1) >>> 1).value) > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * printHeap prints the elements of the underlying arraylist.
+	 */
+	public void printHeap() {
+		System.out.println("Printing underlying array (up to 100 elements): ");
+		for (int i = 0; i < Math.min(100, heap.size()); i++) {
+			System.out.print(heap.get(i).value + " ");
+		}
+		System.out.println("");
+	}
+
+	/**
+	 * Main compares IndexedHeap with Heap on a rescheduling workload: n jobs are queued by priority and then
+	 * jobs are repeatedly given a new priority. Heap has to find and remove the job by value and add it back,
+	 * while IndexedHeap updates it through its handle.
+	 * @param args This is the number of jobs and the number of reschedules, 20000 and 20000 by default.
+	 * @throws IOException Error when a heap operation fails.
+	 */
+	public static void main(String[] args) throws IOException {
+		int jobs = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		int reschedules = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+		Random rand = new Random(42);
+		Long[] priorities = new Long[jobs];
+		int[] targets = new int[reschedules];
+		Long[] updates = new Long[reschedules];
+		for (int i = 0; i < jobs; i++) {
+			// The low bits hold the job number so every priority is unique and Heap can find the job by value.
+			priorities[i] = ((long) rand.nextInt(1 << 20) << 32) | i;
+		}
+		for (int i = 0; i < reschedules; i++) {
+			targets[i] = rand.nextInt(jobs);
+			updates[i] = ((long) rand.nextInt(1 << 20) << 32) | targets[i];
+		}
+
+		long start = System.nanoTime();
+		Heap<Long> heap = new Heap<Long>(priorities.clone());
+		Long[] current = priorities.clone();
+		for (int i = 0; i < reschedules; i++) {
+			heap.removeNodeByValue(current[targets[i]]);
+			current[targets[i]] = updates[i];
+			heap.addNode(updates[i]);
+		}
+		long heapNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		IndexedHeap<Long> indexed = new IndexedHeap<Long>();
+		ArrayList<Handle<Long>> handles = new ArrayList<Handle<Long>>(jobs);
+		for (int i = 0; i < jobs; i++) {
+			handles.add(indexed.addNode(priorities[i]));
+		}
+		for (int i = 0; i < reschedules; i++) {
+			indexed.updateNodeValue(handles.get(targets[i]), updates[i]);
+		}
+		long indexedNanos = System.nanoTime() - start;
+
+		if (!heap.findMax().equals(indexed.findMax()) || !indexed.isHeap()) {
+			throw new IllegalStateException("Error: the heaps disagree after rescheduling.");
+		}
+		System.out.println(jobs + " jobs, " + reschedules + " reschedules");
+		System.out.println("Heap:        " + heapNanos / 1000000 + " ms (" + heapNanos / reschedules + " ns per reschedule)");
+		System.out.println("IndexedHeap: " + indexedNanos / 1000000 + " ms (" + indexedNanos / reschedules + " ns per reschedule)");
+	}
+}
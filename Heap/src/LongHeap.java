@@ -0,0 +1,294 @@
+/**
+ * LongHeap.java is a max heap of long values with the same API as Heap, without boxing.
+ * The heap is stored in a growable long[], so each value costs 8 bytes instead of a Long object and a reference,
+ * and comparisons are plain long comparisons instead of calls to compareTo.
+ * The array only grows, so once it has reached its largest size no operation allocates.
+ * Sifting moves a hole instead of swapping, and removing a node swaps it with the last node and sifts,
+ * so every operation except extractMin and removeNodeByValue is O(log n).
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class LongHeap {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	// The largest array the JVM will reliably allocate.
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	private long heap[];
+	private int size;
+
+	/**
+	 * LongHeap() is the default constructor and creates an empty heap.
+	 */
+	public LongHeap() {
+		heap = new long[DEFAULT_CAPACITY];
+	}
+
+	/**
+	 * LongHeap(capacity) creates an empty heap that can hold capacity values before it has to grow.
+	 * @param capacity This is the initial capacity.
+	 */
+	public LongHeap(int capacity) {
+		heap = new long[Math.max(1, capacity)];
+	}
+
+	/**
+	 * LongHeap(arr) is a constructor that given an array converts a copy of the array into a heap.
+	 * @param arr This is an array that will be converted into a heap.
+	 */
+	public LongHeap(long[] arr) {
+		heap = Arrays.copyOf(arr, Math.max(DEFAULT_CAPACITY, arr.length));
+		size = arr.length;
+		buildMaxHeap();
+	}
+
+	/**
+	 * isOutOfBounds checks that the index is valid (>= 0 and < size).
+	 * @param index This is the index in the heap.
+	 * @return boolean This returns if the index is invalid.
+	 */
+	private boolean isOutOfBounds(int index) {
+		return index >= size || index < 0;
+	}
+
+	/**
+	 * size returns the size of the heap.
+	 * @return int The size of the heap.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * isEmpty checks if the heap is empty.
+	 * @return boolean if the heap is empty.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * clear removes every value but keeps the array, so refilling the heap doesn't allocate.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * siftDown places a value into the hole at a node, moving larger children up until the value fits.
+	 * @param hole This is the index of the empty node.
+	 * @param value This is the value to place.
+	 */
+	private void siftDown(int hole, long value) {
+		int half = size >>> 1;
+		while (hole < half) {
+			int child = 2 * hole + 1;
+			long max = heap[child];
+			if (child + 1 < size && heap[child + 1] > max) {
+				max = heap[++child];
+			}
+			if (max <= value) {
+				break;
+			}
+			heap[hole] = max;
+			hole = child;
+		}
+		heap[hole] = value;
+	}
+
+	/**
+	 * siftUp places a value into the hole at a node, moving smaller parents down until the value fits.
+	 * @param hole This is the index of the empty node.
+	 * @param value This is the value to place.
+	 */
+	private void siftUp(int hole, long value) {
+		while (hole > 0) {
+			int parent = (hole - 1) >>> 1;
+			long above = heap[parent];
+			if (above >= value) {
+				break;
+			}
+			heap[hole] = above;
+			hole = parent;
+		}
+		heap[hole] = value;
+	}
+
+	/**
+	 * buildMaxHeap takes the underlying array and sorts it such that it is a heap.
+	 */
+	private void buildMaxHeap() {
+		for (int i = (size >>> 1) - 1; i >= 0; i--) {
+			siftDown(i, heap[i]);
+		}
+	}
+
+	/**
+	 * addNode takes a value and adds it to the heap.
+	 * @param value This is the value that will be added to the heap.
+	 * @throws IllegalStateException Error when the heap already holds MAX_CAPACITY values.
+	 */
+	public void addNode(long value) {
+		if (size == heap.length) {
+			if (heap.length >= MAX_CAPACITY) {
+				throw new IllegalStateException("Error: the heap is full.");
+			}
+			// Grow by half, computed in long so it can't overflow, and stop at MAX_CAPACITY.
+			heap = Arrays.copyOf(heap, (int) Math.min((long) heap.length * 3 / 2 + 1, MAX_CAPACITY));
+		}
+		siftUp(size++, value);
+	}
+
+	/**
+	 * removeNodeByIndex removes the node at a given index by moving the last node into its place.
+	 * @param index This is the index that will be removed from the heap.
+	 * @throws IOException Error when the index is out of bounds.
+	 */
+	public void removeNodeByIndex(int index) throws IOException {
+		if (isOutOfBounds(index)) {
+			throw new IOException("Error in removal: data not found or index out of bounds.");
+		}
+		long last = heap[--size];
+		if (index == size) {
+			return;
+		}
+		// The last node may belong above or below the removed one.
+		if (index > 0 && last > heap[(index - 1) >>> 1]) {
+			siftUp(index, last);
+		}
+		else {
+			siftDown(index, last);
+		}
+	}
+
+	/**
+	 * removeNodeByValue removes the node with the first occurrence of the given value.
+	 * @param value This is the value that will be removed from the heap.
+	 * @throws IOException Error when the value is not in the heap.
+	 */
+	public void removeNodeByValue(long value) throws IOException {
+		removeNodeByIndex(indexOf(value));
+	}
+
+	/**
+	 * indexOf finds the index of the first occurrence of a value.
+	 * @param value This is the value to find.
+	 * @return int The index, or -1 if the value is not in the heap.
+	 */
+	public int indexOf(long value) {
+		for (int i = 0; i < size; i++) {
+			if (heap[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * printHeap prints the elements of the underlying array.
+	 */
+	public void printHeap() {
+		System.out.println("Printing underlying array (up to 100 elements): ");
+		for (int i = 0; i < Math.min(100, size); i++) {
+			System.out.print(heap[i] + " ");
+		}
+		System.out.println("");
+	}
+
+	/**
+	 * isHeap checks if the nodes under a given parent meet the confines to be a heap.
+	 * @param parent This is the parent node of the heap.
+	 * @return boolean If the underlying array is a heap.
+	 */
+	public boolean isHeap(int parent) {
+		for (int i = Math.max(parent, 1); i < size; i++) {
+			if (heap[i] > heap[(i - 1) >>> 1]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * findMax peeks at the maximum value in the heap.
+	 * @return long This is the maximum value of the heap.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public long findMax() throws IOException {
+		if (isEmpty()) {
+			throw new IOException("Error in peek: the heap is empty");
+		}
+		return heap[0];
+	}
+
+	/**
+	 * deleteMax() remove the maximum value from the heap.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public void deleteMax() throws IOException {
+		if (isEmpty()) {
+			throw new IOException("Error in deletion: the heap is empty");
+		}
+		long last = heap[--size];
+		if (size > 0) {
+			siftDown(0, last);
+		}
+	}
+
+	/**
+	 * extractMax deletes the maximum value of the heap and returns it.
+	 * @return long This is the maximum value in the heap.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public long extractMax() throws IOException {
+		long max = findMax();
+		deleteMax();
+		return max;
+	}
+
+	/**
+	 * extractMin deletes the minimum value of the heap and returns it. The minimum is always a leaf,
+	 * so only the second half of the array is searched.
+	 * @return long This is the minimum value in the heap.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public long extractMin() throws IOException {
+		if (isEmpty()) {
+			throw new IOException("Error in removal: the heap is empty.");
+		}
+		int minIndex = size >>> 1;
+		for (int i = minIndex + 1; i < size; i++) {
+			if (heap[i] < heap[minIndex]) {
+				minIndex = i;
+			}
+		}
+		long min = heap[minIndex];
+		removeNodeByIndex(minIndex);
+		return min;
+	}
+
+	/**
+	 * updateNodeValue changes the value of a node at a given index and moves it up or down to keep the heap valid.
+	 * @param index This is the index of the node to be changed.
+	 * @param value This is the value that the node will be updated to.
+	 * @throws IOException Error when index is out of bounds.
+	 */
+	public void updateNodeValue(int index, long value) throws IOException {
+		if (isOutOfBounds(index)) {
+			throw new IOException("Error: index out of bounds");
+		}
+		if (value > heap[index]) {
+			siftUp(index, value);
+		}
+		else {
+			siftDown(index, value);
+		}
+	}
+}
@@ -0,0 +1,361 @@
+/**
+ * MinMaxHeap.java is a double-ended priority queue built on a min-max heap (Atkinson et al., 1986).
+ * Nodes on even levels are smaller than everything below them and nodes on odd levels are larger,
+ * so the minimum is the root and the maximum is one of its two children.
+ * findMin and findMax are O(1), and addNode, extractMin and extractMax are O(log n).
+ * The heap is built on an arraylist and utilizes Java generics, like Heap.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+public class MinMaxHeap<T extends Comparable<T>> {
+
+	// The blackhole for main. Extracted values are folded in here so the JIT can't drop the work.
+	private static volatile long sink;
+
+	private ArrayList<T> heap = new ArrayList<T>();
+
+	/**
+	 * MinMaxHeap() is the default constructor and creates an empty heap.
+	 */
+	public MinMaxHeap() {
+		heap = new ArrayList<T>();
+	}
+
+	/**
+	 * MinMaxHeap(arr) is a constructor that given an array converts the array into a min-max heap in O(n).
+	 * @param arr This is an array that will be converted into a heap.
+	 */
+	public MinMaxHeap(T[] arr) {
+		heap = new ArrayList<T>(arr.length);
+		for (int i = 0; i < arr.length; i++) {
+			heap.add(arr[i]);
+		}
+		for (int i = (heap.size() >>> 1) - 1; i >= 0; i--) {
+			trickleDown(i);
+		}
+	}
+
+	/**
+	 * size returns the size of the heap.
+	 * @return int The size of the heap.
+	 */
+	public int size() {
+		return heap.size();
+	}
+
+	/**
+	 * isEmpty checks if the heap is empty.
+	 * @return boolean if the heap is empty.
+	 */
+	public boolean isEmpty() {
+		return heap.isEmpty();
+	}
+
+	/**
+	 * isMinLevel checks if a node is on an even level, where each node is the minimum of its subtree.
+	 * @param index This is the index of the node.
+	 * @return boolean If the node is on a min level.
+	 */
+	private static boolean isMinLevel(int index) {
+		return ((31 - Integer.numberOfLeadingZeros(index + 1)) & 1) == 0;
+	}
+
+	/**
+	 * less compares the nodes at two indices.
+	 * @return boolean If the first node is smaller than the second.
+	 */
+	private boolean less(int a, int b) {
+		return heap.get(a).compareTo(heap.get(b)) < 0;
+	}
+
+	private void swap(int a, int b) {
+		T temp = heap.get(a);
+		heap.set(a, heap.get(b));
+		heap.set(b, temp);
+	}
+
+	/**
+	 * bubbleUp moves a new node up to its place. It first decides whether the node belongs on the min
+	 * levels or the max levels above it, then climbs only those levels, two at a time.
+	 * @param index This is the index of the node.
+	 */
+	private void bubbleUp(int index) {
+		if (index == 0) {
+			return;
+		}
+		int parent = (index - 1) >>> 1;
+		if (isMinLevel(index)) {
+			if (less(parent, index)) {
+				swap(index, parent);
+				bubbleUpLevels(parent, false);
+			}
+			else {
+				bubbleUpLevels(index, true);
+			}
+		}
+		else {
+			if (less(index, parent)) {
+				swap(index, parent);
+				bubbleUpLevels(parent, true);
+			}
+			else {
+				bubbleUpLevels(index, false);
+			}
+		}
+	}
+
+	/**
+	 * bubbleUpLevels moves a node up through its grandparents while it is smaller (on min levels) or larger
+	 * (on max levels) than them.
+	 * @param index This is the index of the node.
+	 * @param min This is true for the min levels and false for the max levels.
+	 */
+	private void bubbleUpLevels(int index, boolean min) {
+		while (index >= 3) {
+			int grandparent = (((index - 1) >>> 1) - 1) >>> 1;
+			if (min ? less(index, grandparent) : less(grandparent, index)) {
+				swap(index, grandparent);
+				index = grandparent;
+			}
+			else {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * trickleDown moves a node down to its place, using the order of the level it is on.
+	 * @param index This is the index of the node.
+	 */
+	private void trickleDown(int index) {
+		boolean min = isMinLevel(index);
+		int size = heap.size();
+		while (true) {
+			int first = 2 * index + 1;
+			if (first >= size) {
+				return;
+			}
+			// Find the best of the up to two children and four grandchildren.
+			int best = first;
+			int last = Math.min(4 * index + 6, size - 1);
+			if (first + 1 < size && better(first + 1, best, min)) {
+				best = first + 1;
+			}
+			for (int i = 4 * index + 3; i <= last; i++) {
+				if (better(i, best, min)) {
+					best = i;
+				}
+			}
+			if (!better(best, index, min)) {
+				return;
+			}
+			swap(best, index);
+			if (best <= first + 1) {
+				// A child is on the opposite kind of level and has no descendants to fix up.
+				return;
+			}
+			int parent = (best - 1) >>> 1;
+			if (better(parent, best, min)) {
+				swap(best, parent);
+			}
+			index = best;
+		}
+	}
+
+	/**
+	 * better compares two nodes in the order of a kind of level.
+	 * @return boolean If a is smaller than b on min levels, or larger than b on max levels.
+	 */
+	private boolean better(int a, int b, boolean min) {
+		return min ? less(a, b) : less(b, a);
+	}
+
+	/**
+	 * maxIndex finds the index of the maximum node, which is the root or the larger of its children.
+	 * @return int The index of the maximum.
+	 */
+	private int maxIndex() {
+		if (heap.size() == 1) {
+			return 0;
+		}
+		if (heap.size() == 2 || less(2, 1)) {
+			return 1;
+		}
+		return 2;
+	}
+
+	/**
+	 * addNode takes a value and adds it to the heap.
+	 * @param value This is the value that will be added to the heap.
+	 */
+	public void addNode(T value) {
+		heap.add(value);
+		bubbleUp(heap.size() - 1);
+	}
+
+	/**
+	 * findMin peeks at the minimum value in the heap.
+	 * @return T This is the minimum value of the heap.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public T findMin() throws IOException {
+		if (isEmpty()) {
+			throw new IOException("Error in peek: the heap is empty");
+		}
+		return heap.get(0);
+	}
+
+	/**
+	 * findMax peeks at the maximum value in the heap.
+	 * @return T This is the maximum value of the heap.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public T findMax() throws IOException {
+		if (isEmpty()) {
+			throw new IOException("Error in peek: the heap is empty");
+		}
+		return heap.get(maxIndex());
+	}
+
+	/**
+	 * extractMin deletes the minimum value of the heap and returns it.
+	 * @return T This is the minimum value in the heap.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public T extractMin() throws IOException {
+		if (isEmpty()) {
+			throw new IOException("Error in removal: the heap is empty.");
+		}
+		return removeAt(0);
+	}
+
+	/**
+	 * extractMax deletes the maximum value of the heap and returns it.
+	 * @return T This is the maximum value in the heap.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public T extractMax() throws IOException {
+		if (isEmpty()) {
+			throw new IOException("Error in removal: the heap is empty.");
+		}
+		return removeAt(maxIndex());
+	}
+
+	/**
+	 * removeAt removes the node at an index by moving the last node into its place and trickling it down.
+	 * This is only used for the root and its children, where the last node can't belong further up.
+	 * @param index This is the index of the node.
+	 * @return T The removed value.
+	 */
+	private T removeAt(int index) {
+		T value = heap.get(index);
+		T last = heap.remove(heap.size() - 1);
+		if (index < heap.size()) {
+			heap.set(index, last);
+			trickleDown(index);
+		}
+		return value;
+	}
+
+	/**
+	 * isHeap checks if every node is in order with each of its ancestors.
+	 * @return boolean If the underlying array is a min-max heap.
+	 */
+	public boolean isHeap() {
+		for (int i = 1; i < heap.size(); i++) {
+			for (int ancestor = (i - 1) >>> 1; ; ancestor = (ancestor - 1) >>> 1) {
+				if (isMinLevel(ancestor) ? less(i, ancestor) : less(ancestor, i)) {
+					return false;
+				}
+				if (ancestor == 0) {
+					break;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * printHeap prints the elements of the underlying arraylist.
+	 */
+	public void printHeap() {
+		System.out.println("Printing underlying array (up to 100 elements): ");
+		for (int i = 0; i < Math.min(100, heap.size()); i++) {
+			System.out.print(heap.get(i) + " ");
+		}
+		System.out.println("");
+	}
+
+	/**
+	 * Main benchmarks MinMaxHeap against Heap on mixed workloads. Each heap starts with n random values and then runs
+	 * the same seeded sequence of operations, where each operation is an addNode, an extractMax or an extractMin.
+	 * @param args This is the starting size and the number of operations, 20000 and 20000 by default.
+	 * @throws IOException Error when a heap operation fails.
+	 */
+	public static void main(String[] args) throws IOException {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		int operations = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+		// Percentages of addNode and extractMax. The rest are extractMin.
+		String[] names = {"balanced", "serve-heavy", "evict-heavy"};
+		int[][] mixes = {{50, 25}, {50, 40}, {50, 10}};
+
+		for (int w = 0; w < names.length; w++) {
+			Random rand = new Random(42);
+			Integer[] start = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				start[i] = rand.nextInt();
+			}
+			int[] ops = new int[operations];
+			int[] values = new int[operations];
+			for (int i = 0; i < operations; i++) {
+				int roll = rand.nextInt(100);
+				ops[i] = roll < mixes[w][0] ? 0 : roll < mixes[w][0] + mixes[w][1] ? 1 : 2;
+				values[i] = rand.nextInt();
+			}
+
+			long begin = System.nanoTime();
+			Heap<Integer> heap = new Heap<Integer>(start.clone());
+			long sum = 0;
+			for (int i = 0; i < operations; i++) {
+				if (ops[i] == 0 || heap.isEmpty()) {
+					heap.addNode(values[i]);
+				}
+				else if (ops[i] == 1) {
+					sum += heap.extractMax();
+				}
+				else {
+					sum += heap.extractMin();
+				}
+			}
+			long heapNanos = System.nanoTime() - begin;
+
+			begin = System.nanoTime();
+			MinMaxHeap<Integer> minMax = new MinMaxHeap<Integer>(start.clone());
+			for (int i = 0; i < operations; i++) {
+				if (ops[i] == 0 || minMax.isEmpty()) {
+					minMax.addNode(values[i]);
+				}
+				else if (ops[i] == 1) {
+					sum += minMax.extractMax();
+				}
+				else {
+					sum += minMax.extractMin();
+				}
+			}
+			long minMaxNanos = System.nanoTime() - begin;
+			if (!minMax.isHeap()) {
+				throw new IllegalStateException("Error: MinMaxHeap is out of order.");
+			}
+			sink += sum;
+			System.out.println(String.format("%-12s Heap: %8d ns/op   MinMaxHeap: %6d ns/op", names[w],
+					heapNanos / operations, minMaxNanos / operations));
+		}
+	}
+}
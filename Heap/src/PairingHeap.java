@@ -0,0 +1,470 @@
+/**
+ * PairingHeap.java is a mergeable max heap built as a pairing heap (Fredman, Sedgewick, Sleator and Tarjan, 1986).
+ * The heap is a tree of nodes where each node is at least as large as its children, stored as a leftmost child
+ * and a list of siblings. Two heaps meld in O(1) by making the smaller root a child of the larger, so combining
+ * heaps never copies or rebuilds anything. addNode and findMax are O(1), extractMax is O(log n) amortized
+ * using the two-pass pairing, and increasing a value through its handle is O(1) amortized in practice.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PairingHeap<T extends Comparable<T>> {
+
+	/**
+	 * Node is a value in a PairingHeap and also its handle. It stays valid until the value is removed,
+	 * including after its heap is melded into another one.
+	 */
+	public static final class Node<T> {
+		private T value;
+		private Node<T> child;
+		private Node<T> sibling;
+		// The parent if this is the leftmost child, otherwise the sibling to the left.
+		private Node<T> prev;
+		// The token of the heap the node was added to, or null once it has been removed.
+		private Owner owner;
+
+		private Node(T value, Owner owner) {
+			this.value = value;
+			this.owner = owner;
+		}
+
+		/**
+		 * getValue returns the value of the node.
+		 * @return T The value.
+		 */
+		public T getValue() {
+			return value;
+		}
+	}
+
+	/**
+	 * Owner identifies a heap for its handles. When a heap is melded into another, its token is pointed at the
+	 * other heap's token, so the handles follow the chain to their new heap without being visited.
+	 */
+	private static final class Owner {
+		private Owner next;
+	}
+
+	// The blackhole for main. Extracted values are folded in here so the JIT can't drop the work.
+	private static volatile long sink;
+
+	private Node<T> root;
+	private int size;
+	// Always the end of its chain. A melded heap gets a new token, so values added to it later aren't moved along.
+	private Owner owner = new Owner();
+
+	/**
+	 * size returns the size of the heap.
+	 * @return int The size of the heap.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * isEmpty checks if the heap is empty.
+	 * @return boolean if the heap is empty.
+	 */
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	/**
+	 * addNode takes a value and adds it to the heap.
+	 * @param value This is the value that will be added to the heap.
+	 * @return Node The handle of the new node.
+	 */
+	public Node<T> addNode(T value) {
+		Node<T> node = new Node<T>(value, owner);
+		root = root == null ? node : link(root, node);
+		size++;
+		return node;
+	}
+
+	/**
+	 * meld moves every value of another heap into this one in O(1). The other heap is left empty,
+	 * and its handles now belong to this heap.
+	 * @param other This is the heap to merge into this one.
+	 */
+	public void meld(PairingHeap<T> other) {
+		if (other == this || other.root == null) {
+			return;
+		}
+		root = root == null ? other.root : link(root, other.root);
+		size += other.size;
+		other.root = null;
+		other.size = 0;
+		other.owner.next = owner;
+		other.owner = new Owner();
+	}
+
+	/**
+	 * contains checks if a handle refers to a node that is still in this heap. It follows the node's token to the
+	 * end of its chain and points every token on the way straight at the end, so it is O(1) amortized.
+	 * @param node This is the handle to check.
+	 * @return boolean If the node is in the heap.
+	 */
+	public boolean contains(Node<T> node) {
+		if (node == null || node.owner == null) {
+			return false;
+		}
+		Owner end = node.owner;
+		while (end.next != null) {
+			end = end.next;
+		}
+		for (Owner token = node.owner; token.next != null; ) {
+			Owner next = token.next;
+			token.next = end;
+			token = next;
+		}
+		node.owner = end;
+		return end == owner;
+	}
+
+	/**
+	 * findMax peeks at the maximum value in the heap.
+	 * @return T This is the maximum value of the heap.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public T findMax() throws IOException {
+		if (isEmpty()) {
+			throw new IOException("Error in peek: the heap is empty");
+		}
+		return root.value;
+	}
+
+	/**
+	 * deleteMax() remove the maximum value from the heap.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public void deleteMax() throws IOException {
+		extractMax();
+	}
+
+	/**
+	 * extractMax deletes the maximum value of the heap and returns it.
+	 * @return T This is the maximum value in the heap.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public T extractMax() throws IOException {
+		if (isEmpty()) {
+			throw new IOException("Error in removal: the heap is empty.");
+		}
+		Node<T> max = root;
+		root = mergePairs(max.child);
+		detach(max);
+		size--;
+		return max.value;
+	}
+
+	/**
+	 * removeNode removes a node by cutting it out of the tree and melding its children back in.
+	 * @param node This is the handle of the node to remove.
+	 * @throws IOException Error when the node is not in this heap.
+	 */
+	public void removeNode(Node<T> node) throws IOException {
+		if (!contains(node)) {
+			throw new IOException("Error in removal: the node is not in this heap.");
+		}
+		if (node == root) {
+			extractMax();
+			return;
+		}
+		cut(node);
+		Node<T> children = mergePairs(node.child);
+		if (children != null) {
+			root = link(root, children);
+		}
+		detach(node);
+		size--;
+	}
+
+	/**
+	 * updateNodeValue changes the value of a node. A larger value cuts the node's subtree out and links it with the
+	 * root, which is O(1). A smaller value has to take the node out of its subtree, so it costs as much as removeNode.
+	 * @param node This is the handle of the node to be changed.
+	 * @param value This is the value that the node will be updated to.
+	 * @throws IOException Error when the node is not in this heap.
+	 */
+	public void updateNodeValue(Node<T> node, T value) throws IOException {
+		if (!contains(node)) {
+			throw new IOException("Error: the node is not in this heap.");
+		}
+		int comparison = value.compareTo(node.value);
+		node.value = value;
+		if (comparison > 0) {
+			if (node != root) {
+				cut(node);
+				root = link(root, node);
+			}
+		}
+		else if (comparison < 0 && node.child != null) {
+			Node<T> children = mergePairs(node.child);
+			node.child = null;
+			if (node == root) {
+				root = link(children, node);
+			}
+			else {
+				cut(node);
+				root = link(link(root, children), node);
+			}
+		}
+	}
+
+	/**
+	 * link makes the smaller of two roots the leftmost child of the larger and returns the larger.
+	 */
+	private Node<T> link(Node<T> a, Node<T> b) {
+		if (b.value.compareTo(a.value) > 0) {
+			Node<T> temp = a;
+			a = b;
+			b = temp;
+		}
+		b.sibling = a.child;
+		if (a.child != null) {
+			a.child.prev = b;
+		}
+		b.prev = a;
+		a.child = b;
+		a.sibling = null;
+		a.prev = null;
+		return a;
+	}
+
+	/**
+	 * cut removes a node and its subtree from its parent's list of children.
+	 */
+	private void cut(Node<T> node) {
+		if (node.prev.child == node) {
+			node.prev.child = node.sibling;
+		}
+		else {
+			node.prev.sibling = node.sibling;
+		}
+		if (node.sibling != null) {
+			node.sibling.prev = node.prev;
+		}
+		node.sibling = null;
+		node.prev = null;
+	}
+
+	/**
+	 * mergePairs combines a list of siblings into one tree with the two-pass pairing: link them in pairs from left
+	 * to right, then link the pairs from right to left. Both passes are loops, so long lists can't overflow the stack.
+	 * @param first This is the leftmost sibling.
+	 * @return Node The root of the combined tree, or null if the list was empty.
+	 */
+	private Node<T> mergePairs(Node<T> first) {
+		// First pass. The linked pairs are pushed onto a stack threaded through their sibling fields.
+		Node<T> pairs = null;
+		while (first != null) {
+			Node<T> a = first;
+			Node<T> b = a.sibling;
+			if (b == null) {
+				a.prev = null;
+				a.sibling = pairs;
+				pairs = a;
+				break;
+			}
+			first = b.sibling;
+			a.sibling = null;
+			b.sibling = null;
+			Node<T> pair = link(a, b);
+			pair.sibling = pairs;
+			pairs = pair;
+		}
+		if (pairs == null) {
+			return null;
+		}
+		// Second pass. Popping the stack visits the pairs from right to left.
+		Node<T> result = pairs;
+		pairs = pairs.sibling;
+		result.sibling = null;
+		while (pairs != null) {
+			Node<T> next = pairs.sibling;
+			pairs.sibling = null;
+			result = link(result, pairs);
+			pairs = next;
+		}
+		return result;
+	}
+
+	/**
+	 * detach marks a removed node so its handle is rejected from now on.
+	 */
+	private void detach(Node<T> node) {
+		node.child = null;
+		node.sibling = null;
+		node.prev = null;
+		node.owner = null;
+	}
+
+	/**
+	 * isHeap checks if every node is at least as large as its children and every link is consistent.
+	 * @return boolean If the tree is a heap.
+	 */
+	public boolean isHeap() {
+		int count = 0;
+		ArrayDeque<Node<T>> stack = new ArrayDeque<Node<T>>();
+		if (root != null) {
+			if (root.prev != null || root.sibling != null) {
+				return false;
+			}
+			stack.push(root);
+		}
+		while (!stack.isEmpty()) {
+			Node<T> node = stack.pop();
+			count++;
+			Node<T> left = node;
+			for (Node<T> child = node.child; child != null; child = child.sibling) {
+				if (child.prev != left || child.value.compareTo(node.value) > 0 || child.owner == null) {
+					return false;
+				}
+				left = child;
+				stack.push(child);
+			}
+		}
+		return count == size;
+	}
+
+	/**
+	 * printHeap prints the values in the order of a depth first walk of the tree.
+	 */
+	public void printHeap() {
+		System.out.println("Printing the tree depth first (up to 100 elements): ");
+		ArrayDeque<Node<T>> stack = new ArrayDeque<Node<T>>();
+		if (root != null) {
+			stack.push(root);
+		}
+		for (int printed = 0; printed < 100 && !stack.isEmpty(); printed++) {
+			Node<T> node = stack.pop();
+			System.out.print(node.value + " ");
+			if (node.sibling != null && node != root) {
+				stack.push(node.sibling);
+			}
+			if (node.child != null) {
+				stack.push(node.child);
+			}
+		}
+		System.out.println("");
+	}
+
+	/**
+	 * Main benchmarks a shard merge. Each of s shards holds m random values. The shards are merged in pairs,
+	 * round after round, until one queue is left, and then the top k values are extracted. Heap has to rebuild
+	 * from the concatenated contents at every merge, while PairingHeap melds. Before that it checks that a handle
+	 * is only accepted by the heap that holds its node, including after a meld.
+	 * @param args This is s, m and k, 64, 20000 and 1000 by default.
+	 * @throws IOException Error when a heap operation fails.
+	 */
+	public static void main(String[] args) throws IOException {
+		int shards = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+		int perShard = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+		int top = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+		PairingHeap<Integer> a = new PairingHeap<Integer>();
+		PairingHeap<Integer> b = new PairingHeap<Integer>();
+		a.addNode(1);
+		Node<Integer> handle = b.addNode(2);
+		try {
+			a.removeNode(handle);
+			throw new IllegalStateException("Error: a heap removed a node of another heap.");
+		}
+		catch (IOException e) {
+			System.out.println("Removing a node of another heap: " + e.getMessage());
+		}
+		a.meld(b);
+		try {
+			b.updateNodeValue(handle, 3);
+			throw new IllegalStateException("Error: a melded heap updated a node it no longer holds.");
+		}
+		catch (IOException e) {
+			System.out.println("Updating a node through the heap it was melded out of: " + e.getMessage());
+		}
+		b.addNode(4);
+		a.removeNode(handle);
+		if (a.size() != 1 || b.size() != 1 || !a.isHeap() || !b.isHeap() || a.contains(handle)) {
+			throw new IllegalStateException("Error: the handles were not moved by the meld.");
+		}
+
+		for (int round = 0; round < 3; round++) {
+			Random rand = new Random(42);
+			List<ArrayList<Integer>> contents = new ArrayList<ArrayList<Integer>>();
+			List<PairingHeap<Integer>> pairing = new ArrayList<PairingHeap<Integer>>();
+			for (int s = 0; s < shards; s++) {
+				ArrayList<Integer> values = new ArrayList<Integer>(perShard);
+				PairingHeap<Integer> heap = new PairingHeap<Integer>();
+				for (int i = 0; i < perShard; i++) {
+					int value = rand.nextInt();
+					values.add(value);
+					heap.addNode(value);
+				}
+				contents.add(values);
+				pairing.add(heap);
+			}
+
+			// Heap: every merge concatenates the two shards and rebuilds.
+			long start = System.nanoTime();
+			Heap<Integer> heap = null;
+			while (contents.size() > 1) {
+				List<ArrayList<Integer>> next = new ArrayList<ArrayList<Integer>>();
+				for (int s = 0; s + 1 < contents.size(); s += 2) {
+					ArrayList<Integer> merged = new ArrayList<Integer>(contents.get(s).size() + contents.get(s + 1).size());
+					merged.addAll(contents.get(s));
+					merged.addAll(contents.get(s + 1));
+					heap = new Heap<Integer>(merged);
+					next.add(merged);
+				}
+				if (contents.size() % 2 == 1) {
+					next.add(contents.get(contents.size() - 1));
+				}
+				contents = next;
+			}
+			if (heap == null) {
+				heap = new Heap<Integer>(contents.get(0));
+			}
+			long heapMerge = System.nanoTime() - start;
+			long heapSum = 0;
+			for (int i = 0; i < top; i++) {
+				heapSum += heap.extractMax();
+			}
+			long heapNanos = System.nanoTime() - start;
+
+			// PairingHeap: every merge is a meld.
+			start = System.nanoTime();
+			while (pairing.size() > 1) {
+				List<PairingHeap<Integer>> next = new ArrayList<PairingHeap<Integer>>();
+				for (int s = 0; s + 1 < pairing.size(); s += 2) {
+					pairing.get(s).meld(pairing.get(s + 1));
+					next.add(pairing.get(s));
+				}
+				if (pairing.size() % 2 == 1) {
+					next.add(pairing.get(pairing.size() - 1));
+				}
+				pairing = next;
+			}
+			long pairingMerge = System.nanoTime() - start;
+			long pairingSum = 0;
+			for (int i = 0; i < top; i++) {
+				pairingSum += pairing.get(0).extractMax();
+			}
+			long pairingNanos = System.nanoTime() - start;
+
+			if (heapSum != pairingSum) {
+				throw new IllegalStateException("Error: the heaps returned different top values.");
+			}
+			sink += pairingSum;
+			System.out.println(String.format("%d shards x %d, top %d. Heap: merge %.2f ms, total %.2f ms. "
+					+ "PairingHeap: merge %.3f ms, total %.2f ms.", shards, perShard, top, heapMerge / 1e6,
+					heapNanos / 1e6, pairingMerge / 1e6, pairingNanos / 1e6));
+		}
+	}
+}
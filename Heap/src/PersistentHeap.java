@@ -0,0 +1,487 @@
+/**
+ * PersistentHeap.java is a durable max priority queue whose heap array lives in a memory mapped file, so a queue
+ * survives restarts without being rebuilt. Each entry is a fixed 16 byte record: a long priority and a long payload,
+ * such as the offset of the job in another file. The file starts with a 4 KB header holding the size, so opening
+ * an existing queue of any size is O(1). addNode and extractMax are O(log n) and only write the records on
+ * the sift path.
+ *
+ * Crash consistency uses an undo journal in the header. An operation first works out every record it will write,
+ * copies the old contents of those records and the old size into the journal, and marks the journal active.
+ * Then it writes the records and the new size and clears the mark. If the process dies in between, the next open
+ * finds the mark and copies the journal back, so the queue is always exactly as it was before or after
+ * each operation. Writes are fenced in order, which is enough when only the process dies, because the operating
+ * system still writes the mapped pages out. Opening with sync also forces each step to disk, to survive power loss.
+ *
+ * Usage: PersistentHeap bench file [n]    times adds, extracts and reopening a queue of n entries.
+ *        PersistentHeap killtest file [rounds]    repeatedly kills a child process mid-update and checks the queue.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class PersistentHeap implements Closeable {
+
+	private static final long MAGIC = 0x5048656170763031L;
+	private static final int VERSION = 1;
+
+	// Header layout, in bytes.
+	private static final int MAGIC_AT = 0;
+	private static final int VERSION_AT = 8;
+	private static final int CAPACITY_AT = 16;
+	private static final int SIZE_AT = 24;
+	private static final int ACTIVE_AT = 32;
+	private static final int SAVED_SIZE_AT = 40;
+	private static final int COUNT_AT = 48;
+	private static final int JOURNAL_AT = 64;
+	private static final int JOURNAL_ENTRY_BYTES = 24;
+	private static final int HEADER_BYTES = 4096;
+
+	// Most records one operation can write: one per level of the largest heap.
+	private static final int MAX_WRITES = (HEADER_BYTES - JOURNAL_AT) / JOURNAL_ENTRY_BYTES;
+
+	private static final int RECORD_BYTES = 16;
+	private static final int INITIAL_CAPACITY = 1024;
+	// One mapping can't be larger than 2 GB.
+	private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES;
+
+	private final FileChannel channel;
+	private final boolean sync;
+	private MappedByteBuffer map;
+	private int capacity;
+	private int size;
+	private boolean recovered;
+
+	// The records the current operation will write.
+	private final int[] writeIndex = new int[MAX_WRITES];
+	private final long[] writePriority = new long[MAX_WRITES];
+	private final long[] writePayload = new long[MAX_WRITES];
+	private int writes;
+
+	private PersistentHeap(FileChannel channel, boolean sync) {
+		this.channel = channel;
+		this.sync = sync;
+	}
+
+	/**
+	 * open opens the queue stored in a file, creating an empty one if the file doesn't exist.
+	 * @param file This is the file.
+	 * @return PersistentHeap The queue.
+	 * @throws IOException Error when the file can't be opened or isn't a queue.
+	 */
+	public static PersistentHeap open(Path file) throws IOException {
+		return open(file, false);
+	}
+
+	/**
+	 * open opens the queue stored in a file, creating an empty one if the file doesn't exist.
+	 * An unfinished operation left by a crash is rolled back.
+	 * @param file This is the file.
+	 * @param sync This is true to force every step to disk, so the queue survives power loss and not just a killed process.
+	 * @return PersistentHeap The queue.
+	 * @throws IOException Error when the file can't be opened or isn't a queue.
+	 */
+	public static PersistentHeap open(Path file, boolean sync) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		PersistentHeap heap = new PersistentHeap(channel, sync);
+		try {
+			if (channel.size() == 0) {
+				heap.create();
+			}
+			else {
+				heap.load(file);
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		return heap;
+	}
+
+	/**
+	 * create writes the header of an empty queue.
+	 */
+	private void create() throws IOException {
+		remap(INITIAL_CAPACITY);
+		map.putLong(VERSION_AT, VERSION);
+		map.putLong(SIZE_AT, 0);
+		map.putLong(ACTIVE_AT, 0);
+		VarHandle.storeStoreFence();
+		// The magic number goes last, so a file cut short while being created is never mistaken for a queue.
+		map.putLong(MAGIC_AT, MAGIC);
+		map.force();
+	}
+
+	/**
+	 * load reads the header of an existing queue and rolls back an unfinished operation.
+	 */
+	private void load(Path file) throws IOException {
+		long bytes = channel.size();
+		if (bytes < HEADER_BYTES || (bytes - HEADER_BYTES) % RECORD_BYTES != 0) {
+			throw new IOException("Error: " + file + " is not a persistent heap.");
+		}
+		map = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+		if (map.getLong(MAGIC_AT) != MAGIC || map.getLong(VERSION_AT) != VERSION) {
+			throw new IOException("Error: " + file + " is not a persistent heap.");
+		}
+		capacity = (int) ((bytes - HEADER_BYTES) / RECORD_BYTES);
+		if (map.getLong(ACTIVE_AT) != 0) {
+			rollBack();
+		}
+		size = (int) map.getLong(SIZE_AT);
+		if (size < 0 || size > capacity) {
+			throw new IOException("Error: " + file + " has a corrupt header.");
+		}
+	}
+
+	/**
+	 * rollBack copies the journal back over the records of an operation that didn't finish.
+	 */
+	private void rollBack() {
+		int count = (int) map.getLong(COUNT_AT);
+		for (int i = count - 1; i >= 0; i--) {
+			int at = JOURNAL_AT + i * JOURNAL_ENTRY_BYTES;
+			int index = (int) map.getLong(at);
+			setRecord(index, map.getLong(at + 8), map.getLong(at + 16));
+		}
+		map.putLong(SIZE_AT, map.getLong(SAVED_SIZE_AT));
+		VarHandle.storeStoreFence();
+		map.putLong(ACTIVE_AT, 0);
+		map.force();
+		recovered = true;
+	}
+
+	/**
+	 * remap grows the file to hold a number of records and maps all of it.
+	 */
+	private void remap(int newCapacity) throws IOException {
+		long bytes = HEADER_BYTES + (long) newCapacity * RECORD_BYTES;
+		if (channel.size() < bytes) {
+			channel.write(ByteBuffer.allocate(1), bytes - 1);
+		}
+		map = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+		map.putLong(CAPACITY_AT, newCapacity);
+		capacity = newCapacity;
+	}
+
+	/**
+	 * wasRecovered reports whether opening the queue rolled back an operation that a crash left unfinished.
+	 * @return boolean If a rollback happened.
+	 */
+	public boolean wasRecovered() {
+		return recovered;
+	}
+
+	/**
+	 * size returns the size of the heap.
+	 * @return int The size of the heap.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * isEmpty checks if the heap is empty.
+	 * @return boolean if the heap is empty.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	private long priority(int index) {
+		return map.getLong(HEADER_BYTES + index * RECORD_BYTES);
+	}
+
+	private long payload(int index) {
+		return map.getLong(HEADER_BYTES + index * RECORD_BYTES + 8);
+	}
+
+	private void setRecord(int index, long priority, long payload) {
+		int at = HEADER_BYTES + index * RECORD_BYTES;
+		map.putLong(at, priority);
+		map.putLong(at + 8, payload);
+	}
+
+	/**
+	 * plan records that the current operation will write a record, without writing it yet.
+	 */
+	private void plan(int index, long priority, long payload) {
+		writeIndex[writes] = index;
+		writePriority[writes] = priority;
+		writePayload[writes] = payload;
+		writes++;
+	}
+
+	/**
+	 * apply journals the old contents of every planned record, then writes the records and the new size.
+	 * @param newSize This is the size after the operation.
+	 */
+	private void apply(int newSize) {
+		for (int i = 0; i < writes; i++) {
+			int at = JOURNAL_AT + i * JOURNAL_ENTRY_BYTES;
+			map.putLong(at, writeIndex[i]);
+			map.putLong(at + 8, priority(writeIndex[i]));
+			map.putLong(at + 16, payload(writeIndex[i]));
+		}
+		map.putLong(SAVED_SIZE_AT, size);
+		map.putLong(COUNT_AT, writes);
+		barrier();
+		map.putLong(ACTIVE_AT, 1);
+		barrier();
+		for (int i = 0; i < writes; i++) {
+			setRecord(writeIndex[i], writePriority[i], writePayload[i]);
+		}
+		map.putLong(SIZE_AT, newSize);
+		barrier();
+		map.putLong(ACTIVE_AT, 0);
+		barrier();
+		size = newSize;
+		writes = 0;
+	}
+
+	/**
+	 * barrier keeps the writes before it from reaching memory after the writes that follow it,
+	 * and also forces them to disk when the queue was opened with sync.
+	 */
+	private void barrier() {
+		VarHandle.storeStoreFence();
+		if (sync) {
+			map.force();
+		}
+	}
+
+	/**
+	 * addNode adds an entry to the queue.
+	 * @param priority This is the priority. Larger priorities are extracted first.
+	 * @param payload This is the payload stored with it.
+	 * @throws IOException Error when the file can't grow.
+	 */
+	public void addNode(long priority, long payload) throws IOException {
+		if (size == capacity) {
+			if (capacity == MAX_CAPACITY) {
+				throw new IOException("Error: the queue is full.");
+			}
+			remap((int) Math.min(MAX_CAPACITY, 2L * capacity));
+		}
+		int hole = size;
+		while (hole > 0) {
+			int parent = (hole - 1) >>> 1;
+			long above = priority(parent);
+			if (above >= priority) {
+				break;
+			}
+			plan(hole, above, payload(parent));
+			hole = parent;
+		}
+		plan(hole, priority, payload);
+		apply(size + 1);
+	}
+
+	/**
+	 * findMaxPriority peeks at the largest priority in the queue.
+	 * @return long This is the largest priority.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public long findMaxPriority() throws IOException {
+		if (isEmpty()) {
+			throw new IOException("Error in peek: the heap is empty");
+		}
+		return priority(0);
+	}
+
+	/**
+	 * findMaxPayload peeks at the payload of the entry with the largest priority.
+	 * @return long This is its payload.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public long findMaxPayload() throws IOException {
+		if (isEmpty()) {
+			throw new IOException("Error in peek: the heap is empty");
+		}
+		return payload(0);
+	}
+
+	/**
+	 * extractMax deletes the entry with the largest priority and returns its payload.
+	 * @return long This is the payload of the removed entry.
+	 * @throws IOException Error when heap is empty.
+	 */
+	public long extractMax() throws IOException {
+		long max = findMaxPayload();
+		int newSize = size - 1;
+		if (newSize > 0) {
+			long priority = priority(newSize);
+			long payload = payload(newSize);
+			int hole = 0;
+			int half = newSize >>> 1;
+			while (hole < half) {
+				int child = 2 * hole + 1;
+				long larger = priority(child);
+				if (child + 1 < newSize && priority(child + 1) > larger) {
+					larger = priority(++child);
+				}
+				if (larger <= priority) {
+					break;
+				}
+				plan(hole, larger, payload(child));
+				hole = child;
+			}
+			plan(hole, priority, payload);
+		}
+		apply(newSize);
+		return max;
+	}
+
+	/**
+	 * isHeap checks if every entry's priority is at most its parent's.
+	 * @return boolean If the records form a heap.
+	 */
+	public boolean isHeap() {
+		for (int i = 1; i < size; i++) {
+			if (priority(i) > priority((i - 1) >>> 1)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * close forces the queue to disk and closes the file.
+	 * @throws IOException Error when the file can't be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		map.force();
+		channel.close();
+	}
+
+	/**
+	 * checkPayload is the payload the kill test stores with a priority, so a torn record can be spotted.
+	 */
+	private static long checkPayload(long priority) {
+		long z = priority * 0x9E3779B97F4A7C15L;
+		return z ^ (z >>> 29);
+	}
+
+	/**
+	 * Main runs the bench and killtest modes described at the top of the file.
+	 * @param args This is the mode, the file and the mode's count.
+	 * @throws Exception Error when the queue can't be used or a check fails.
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.out.println("Usage: PersistentHeap bench file [n] | killtest file [rounds]");
+			return;
+		}
+		Path file = Paths.get(args[1]);
+		switch (args[0]) {
+			case "bench":
+				bench(file, args.length > 2 ? Integer.parseInt(args[2]) : 5000000);
+				break;
+			case "killtest":
+				killTest(file, args.length > 2 ? Integer.parseInt(args[2]) : 20);
+				break;
+			case "child":
+				// Run random operations until killed.
+				try (PersistentHeap heap = open(file)) {
+					Random rand = new Random(Long.parseLong(args[2]));
+					while (true) {
+						if (heap.isEmpty() || rand.nextInt(10) < 6) {
+							long priority = rand.nextLong();
+							heap.addNode(priority, checkPayload(priority));
+						}
+						else {
+							heap.extractMax();
+						}
+					}
+				}
+			default:
+				System.out.println("Error: unknown mode " + args[0] + ".");
+		}
+	}
+
+	/**
+	 * bench fills a new queue with n entries, then times extracting and adding entries and reopening the file.
+	 */
+	private static void bench(Path file, int n) throws IOException {
+		Files.deleteIfExists(file);
+		Random rand = new Random(42);
+		long start = System.nanoTime();
+		try (PersistentHeap heap = open(file)) {
+			for (int i = 0; i < n; i++) {
+				heap.addNode(rand.nextLong(), i);
+			}
+		}
+		System.out.println(String.format("Filled %d entries in %.0f ms (%.0f ns per add, including the final force).", n,
+				(System.nanoTime() - start) / 1e6, (System.nanoTime() - start) / (double) n));
+
+		start = System.nanoTime();
+		PersistentHeap heap = open(file);
+		System.out.println(String.format("Reopened %d entries in %.3f ms.", heap.size(), (System.nanoTime() - start) / 1e6));
+
+		int ops = Math.min(n, 1000000);
+		start = System.nanoTime();
+		long sum = 0;
+		for (int i = 0; i < ops; i++) {
+			sum += heap.extractMax();
+		}
+		long extractNanos = System.nanoTime() - start;
+		start = System.nanoTime();
+		for (int i = 0; i < ops; i++) {
+			heap.addNode(rand.nextLong(), sum + i);
+		}
+		long addNanos = System.nanoTime() - start;
+		System.out.println(String.format("%d extracts: %.0f ns each, %d adds: %.0f ns each. Is heap: %b", ops,
+				extractNanos / (double) ops, ops, addNanos / (double) ops, heap.isHeap()));
+		heap.close();
+	}
+
+	/**
+	 * killTest starts a child process that updates the queue in a loop, kills it at a random moment,
+	 * and checks that the queue reopens as a valid heap with no torn records.
+	 */
+	private static void killTest(Path file, int rounds) throws IOException, InterruptedException {
+		Files.deleteIfExists(file);
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		int recoveries = 0;
+		for (int round = 0; round < rounds; round++) {
+			Process child = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "PersistentHeap",
+					"child", file.toString(), Integer.toString(round)).inheritIO().start();
+			Thread.sleep(300 + ThreadLocalRandom.current().nextInt(700));
+			child.destroyForcibly().waitFor();
+
+			try (PersistentHeap heap = open(file)) {
+				if (heap.wasRecovered()) {
+					recoveries++;
+				}
+				if (!heap.isHeap()) {
+					throw new IllegalStateException("Error: round " + round + " left the records out of heap order.");
+				}
+				for (int i = 0; i < heap.size(); i++) {
+					if (heap.payload(i) != checkPayload(heap.priority(i))) {
+						throw new IllegalStateException("Error: round " + round + " left a torn record at " + i + ".");
+					}
+				}
+				System.out.println("Round " + round + ": " + heap.size() + " entries, "
+						+ (heap.wasRecovered() ? "rolled back an unfinished operation" : "no operation in progress"));
+			}
+		}
+		System.out.println("Kill test passed: " + rounds + " kills, " + recoveries + " rollbacks.");
+	}
+}
@@ -0,0 +1,487 @@
+/**
+ * TimerScheduler.java runs tasks after a delay, for retries and timeouts, using Heap ordered by deadline.
+ * Time is divided into ticks (1 ms by default) and a timer fires at the end of its tick, never early.
+ * All the timers due in the same tick share one bucket, so the heap holds one node per distinct deadline,
+ * and a burst of timeouts set at the same moment costs one heap insert. A dispatcher thread sleeps until the
+ * earliest bucket is due, extracts every due bucket in one batch while holding the lock, and then hands the tasks
+ * to an executor after releasing it. By default the executor runs each task on a virtual thread when the JVM has them,
+ * and on the common ForkJoinPool otherwise.
+ *
+ * With the timing wheel enabled, timers due within the wheel's span go into a hierarchical timing wheel instead
+ * (Varghese and Lauck, 1987): 4 levels of 64 slots, each level's slots 64 times wider than the level below. Adding
+ * and cancelling are O(1), and a timer moves down a level at most 3 times before it fires. Longer timers still go to
+ * the heap. The dispatcher then wakes every tick while the wheel holds timers.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class TimerScheduler implements AutoCloseable {
+
+	/**
+	 * Timer is a scheduled task. It can be cancelled until it is dispatched.
+	 */
+	public static final class Timer {
+		private final Runnable task;
+		private final long tick;
+		private volatile boolean cancelled;
+
+		private Timer(Runnable task, long tick) {
+			this.task = task;
+			this.tick = tick;
+		}
+
+		/**
+		 * cancel stops the timer from running if it hasn't been dispatched yet.
+		 */
+		public void cancel() {
+			cancelled = true;
+		}
+
+		/**
+		 * isCancelled checks if the timer was cancelled.
+		 * @return boolean If the timer was cancelled.
+		 */
+		public boolean isCancelled() {
+			return cancelled;
+		}
+	}
+
+	/**
+	 * Bucket holds every timer due in one tick. Earlier ticks compare as larger, so the max heap gives the earliest first.
+	 */
+	private static final class Bucket implements Comparable<Bucket> {
+		final long tick;
+		final ArrayList<Timer> timers = new ArrayList<Timer>();
+
+		Bucket(long tick) {
+			this.tick = tick;
+		}
+
+		@Override
+		public int compareTo(Bucket other) {
+			return Long.compare(other.tick, tick);
+		}
+	}
+
+	/**
+	 * TimingWheel is a hierarchical timing wheel. Level l has SLOTS slots of SLOTS^l ticks each.
+	 */
+	private static final class TimingWheel {
+		static final int BITS = 6;
+		static final int SLOTS = 1 << BITS;
+		static final int LEVELS = 4;
+		static final long SPAN = 1L << (BITS * LEVELS);
+
+		@SuppressWarnings("unchecked")
+		final ArrayList<Timer>[][] slots = (ArrayList<Timer>[][]) new ArrayList<?>[LEVELS][SLOTS];
+		long current;
+		int size;
+
+		TimingWheel() {
+			for (ArrayList<Timer>[] level : slots) {
+				for (int s = 0; s < SLOTS; s++) {
+					level[s] = new ArrayList<Timer>();
+				}
+			}
+		}
+
+		/**
+		 * add puts a timer in the level whose slots just cover the time until it is due, or in due if it already is.
+		 */
+		void add(Timer timer, List<Timer> due) {
+			long delta = timer.tick - current;
+			if (delta <= 0) {
+				due.add(timer);
+				return;
+			}
+			int level = 0;
+			while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+				level++;
+			}
+			slots[level][(int) (timer.tick >>> (BITS * level)) & (SLOTS - 1)].add(timer);
+			size++;
+		}
+
+		/**
+		 * advance moves the wheel forward to a tick, collecting every timer that falls due on the way.
+		 * When a lower level wraps around, the next slot of the level above is emptied and its timers re-added lower down.
+		 */
+		void advance(long tick, List<Timer> due) {
+			while (current < tick) {
+				if (size == 0) {
+					current = tick;
+					return;
+				}
+				current++;
+				for (int level = 1; level < LEVELS; level++) {
+					if ((current & ((1L << (BITS * level)) - 1)) != 0) {
+						break;
+					}
+					ArrayList<Timer> slot = slots[level][(int) (current >>> (BITS * level)) & (SLOTS - 1)];
+					if (!slot.isEmpty()) {
+						Timer[] cascade = slot.toArray(new Timer[0]);
+						slot.clear();
+						size -= cascade.length;
+						for (Timer timer : cascade) {
+							add(timer, due);
+						}
+					}
+				}
+				ArrayList<Timer> slot = slots[0][(int) current & (SLOTS - 1)];
+				if (!slot.isEmpty()) {
+					due.addAll(slot);
+					size -= slot.size();
+					slot.clear();
+				}
+			}
+		}
+	}
+
+	// The blackhole for main. Benchmark tasks fold into it so the JIT can't drop them.
+	private static volatile long sink;
+
+	private final long tickNanos;
+	private final long origin = System.nanoTime();
+	private final Executor executor;
+	private final boolean ownsExecutor;
+
+	private final Heap<Bucket> heap = new Heap<Bucket>();
+	private final HashMap<Long, Bucket> buckets = new HashMap<Long, Bucket>();
+	private final TimingWheel wheel;
+	// Timers that were already due when added to the wheel.
+	private final ArrayList<Timer> ready = new ArrayList<Timer>();
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition changed = lock.newCondition();
+	private final Thread dispatcher;
+	private volatile boolean running = true;
+	// Why the dispatcher stopped by itself, if the executor rejected a task.
+	private volatile RejectedExecutionException rejected;
+
+	/**
+	 * TimerScheduler() creates a scheduler with 1 ms ticks, no timing wheel, and the default executor.
+	 */
+	public TimerScheduler() {
+		this(TimeUnit.MILLISECONDS.toNanos(1), false, null);
+	}
+
+	/**
+	 * TimerScheduler(tickNanos, useWheel, executor) creates a scheduler.
+	 * @param tickNanos This is the length of a tick in nanoseconds. Timers due in the same tick are coalesced.
+	 * @param useWheel This is true to keep timers due within 2^24 ticks in a hierarchical timing wheel.
+	 * @param executor This is the executor that runs the tasks, or null for virtual threads or the common pool.
+	 */
+	public TimerScheduler(long tickNanos, boolean useWheel, Executor executor) {
+		if (tickNanos <= 0) {
+			throw new IllegalArgumentException("Error: the tick must be positive.");
+		}
+		this.tickNanos = tickNanos;
+		this.wheel = useWheel ? new TimingWheel() : null;
+		Executor created = executor == null ? virtualThreadExecutor() : null;
+		this.ownsExecutor = created != null;
+		if (executor == null) {
+			executor = created != null ? created : ForkJoinPool.commonPool();
+		}
+		this.executor = executor;
+		if (wheel != null) {
+			wheel.current = currentTick();
+		}
+		this.dispatcher = new Thread(this::dispatch, "TimerScheduler");
+		this.dispatcher.setDaemon(true);
+		this.dispatcher.start();
+	}
+
+	/**
+	 * virtualThreadExecutor creates an executor that starts a virtual thread per task, through reflection so the code
+	 * still compiles and runs on JVMs without virtual threads.
+	 * @return Executor The executor, or null if the JVM has no virtual threads.
+	 */
+	private static Executor virtualThreadExecutor() {
+		try {
+			return (Executor) java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private long currentTick() {
+		return (System.nanoTime() - origin) / tickNanos;
+	}
+
+	/**
+	 * schedule runs a task once the delay has passed. A delay too long to represent in nanoseconds never fires.
+	 * @param task This is the task to run.
+	 * @param delay This is the delay.
+	 * @param unit This is the unit of the delay.
+	 * @return Timer The timer, which can be cancelled.
+	 * @throws IllegalStateException Error when the scheduler is closed or its executor has rejected a task.
+	 */
+	public Timer schedule(Runnable task, long delay, TimeUnit unit) {
+		long elapsed = System.nanoTime() - origin;
+		// toNanos saturates at Long.MAX_VALUE, and so does the sum.
+		long delayNanos = Math.max(0, unit.toNanos(delay));
+		long deadline = delayNanos > Long.MAX_VALUE - elapsed ? Long.MAX_VALUE : elapsed + delayNanos;
+		// Round up, so the timer never fires before its delay has passed.
+		Timer timer = new Timer(task, deadline / tickNanos + (deadline % tickNanos == 0 ? 0 : 1));
+		lock.lock();
+		try {
+			if (!running) {
+				throw new IllegalStateException("Error: the scheduler is closed.", rejected);
+			}
+			if (wheel != null && timer.tick - wheel.current < TimingWheel.SPAN) {
+				boolean wasEmpty = wheel.size == 0;
+				if (wasEmpty) {
+					// The dispatcher stops advancing an empty wheel, so catch it up first.
+					wheel.current = Math.max(wheel.current, currentTick());
+				}
+				wheel.add(timer, ready);
+				if (wasEmpty || !ready.isEmpty()) {
+					// The dispatcher may be asleep until a heap deadline, or with nothing to wait for.
+					changed.signal();
+				}
+			}
+			else {
+				Bucket bucket = buckets.get(timer.tick);
+				if (bucket == null) {
+					bucket = new Bucket(timer.tick);
+					buckets.put(timer.tick, bucket);
+					boolean earliest = heap.isEmpty() || bucket.compareTo(heap.findMax()) > 0;
+					heap.addNode(bucket);
+					if (earliest) {
+						changed.signal();
+					}
+				}
+				bucket.timers.add(timer);
+			}
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		finally {
+			lock.unlock();
+		}
+		return timer;
+	}
+
+	/**
+	 * dispatch is the dispatcher thread. It waits for the next due tick, takes every due timer in one batch,
+	 * and hands them to the executor with the lock released.
+	 */
+	private void dispatch() {
+		ArrayList<Timer> due = new ArrayList<Timer>();
+		while (true) {
+			lock.lock();
+			try {
+				while (running && due.isEmpty()) {
+					long now = currentTick();
+					if (wheel != null) {
+						due.addAll(ready);
+						ready.clear();
+						wheel.advance(now, due);
+					}
+					while (!heap.isEmpty() && heap.findMax().tick <= now) {
+						Bucket bucket = heap.extractMax();
+						buckets.remove(bucket.tick);
+						due.addAll(bucket.timers);
+					}
+					if (!due.isEmpty()) {
+						break;
+					}
+					long next = Long.MAX_VALUE;
+					if (wheel != null && wheel.size > 0) {
+						next = now + 1;
+					}
+					if (!heap.isEmpty()) {
+						next = Math.min(next, heap.findMax().tick);
+					}
+					if (next == Long.MAX_VALUE) {
+						changed.await();
+					}
+					else if (next < Long.MAX_VALUE / tickNanos) {
+						changed.awaitNanos(next * tickNanos - (System.nanoTime() - origin));
+					}
+					else {
+						// The deadline is past what nanoTime can reach, so only a new timer can wake the dispatcher.
+						changed.await();
+					}
+				}
+				if (!running) {
+					return;
+				}
+			}
+			catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+			catch (InterruptedException e) {
+				return;
+			}
+			finally {
+				lock.unlock();
+			}
+			for (Timer timer : due) {
+				if (!timer.cancelled) {
+					try {
+						executor.execute(timer.task);
+					}
+					catch (RejectedExecutionException e) {
+						reject(e);
+						return;
+					}
+				}
+			}
+			due.clear();
+		}
+	}
+
+	/**
+	 * reject closes the scheduler after the executor refused a task, for example because it was shut down,
+	 * so schedule fails from then on instead of accepting timers that would never run.
+	 * @param e This is the exception from the executor.
+	 */
+	private void reject(RejectedExecutionException e) {
+		lock.lock();
+		try {
+			rejected = e;
+			running = false;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * pending returns the number of timers waiting to fire, including cancelled ones that haven't been reached yet.
+	 * @return int The number of timers.
+	 */
+	public int pending() {
+		lock.lock();
+		try {
+			int count = wheel != null ? wheel.size : 0;
+			for (Bucket bucket : buckets.values()) {
+				count += bucket.timers.size();
+			}
+			return count;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * close stops the dispatcher. Timers that haven't fired are dropped. An executor created by the scheduler is shut down.
+	 */
+	@Override
+	public void close() {
+		lock.lock();
+		try {
+			running = false;
+			changed.signal();
+		}
+		finally {
+			lock.unlock();
+		}
+		try {
+			dispatcher.join();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (ownsExecutor && executor instanceof ExecutorService) {
+			((ExecutorService) executor).shutdown();
+		}
+	}
+
+	/**
+	 * Main benchmarks TimerScheduler, with and without the timing wheel, against ScheduledThreadPoolExecutor.
+	 * Several threads schedule n timers with random delays, and each task records how late it ran.
+	 * The report gives timers scheduled per second and the dispatch lateness percentiles.
+	 * @param args This is n and the largest delay in milliseconds, 200000 and 1000 by default.
+	 * @throws InterruptedException Error when interrupted while waiting for the timers.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int timers = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		int maxDelayMillis = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		int threads = 4;
+		String[] names = {"ScheduledThreadPoolExecutor", "TimerScheduler", "TimerScheduler + wheel"};
+		System.out.println(String.format("%-28s %14s %10s %10s %10s %10s", "scheduler", "scheduled/s", "p50 ms",
+				"p99 ms", "p99.9 ms", "max ms"));
+		for (int round = 0; round < 2; round++) {
+			for (String name : names) {
+				ScheduledThreadPoolExecutor pool = null;
+				TimerScheduler scheduler = null;
+				if (name.startsWith("Scheduled")) {
+					pool = new ScheduledThreadPoolExecutor(Runtime.getRuntime().availableProcessors());
+				}
+				else {
+					scheduler = new TimerScheduler(TimeUnit.MILLISECONDS.toNanos(1), name.endsWith("wheel"), null);
+				}
+				final long[] lateness = new long[timers];
+				final CountDownLatch done = new CountDownLatch(timers);
+				final ScheduledThreadPoolExecutor stpe = pool;
+				final TimerScheduler ts = scheduler;
+				List<Thread> producers = new ArrayList<Thread>();
+				long start = System.nanoTime();
+				for (int t = 0; t < threads; t++) {
+					final int first = t;
+					Thread producer = new Thread(() -> {
+						ThreadLocalRandom random = ThreadLocalRandom.current();
+						for (int i = first; i < timers; i += threads) {
+							final int index = i;
+							final long delay = TimeUnit.MILLISECONDS.toNanos(1 + random.nextInt(maxDelayMillis));
+							final long deadline = System.nanoTime() + delay;
+							Runnable task = () -> {
+								lateness[index] = System.nanoTime() - deadline;
+								done.countDown();
+							};
+							if (stpe != null) {
+								stpe.schedule(task, delay, TimeUnit.NANOSECONDS);
+							}
+							else {
+								ts.schedule(task, delay, TimeUnit.NANOSECONDS);
+							}
+						}
+					});
+					producer.start();
+					producers.add(producer);
+				}
+				for (Thread producer : producers) {
+					producer.join();
+				}
+				long scheduleNanos = System.nanoTime() - start;
+				done.await();
+				if (pool != null) {
+					pool.shutdown();
+				}
+				else {
+					scheduler.close();
+				}
+				Arrays.sort(lateness);
+				sink += lateness[0];
+				if (round > 0) {
+					System.out.println(String.format("%-28s %14.0f %10.2f %10.2f %10.2f %10.2f", name,
+							timers * 1e9 / scheduleNanos, lateness[timers / 2] / 1e6, lateness[(int) (timers * 0.99)] / 1e6,
+							lateness[(int) (timers * 0.999)] / 1e6, lateness[timers - 1] / 1e6));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,561 @@
+/**
+ * AdaptiveSort.java is a natural merge sort for int arrays in the style of TimSort.
+ * It finds ascending and strictly descending runs already in the input and reverses the descending ones.
+ * Short runs are extended to a minimum length with binary insertion sort.
+ * The runs go on a stack whose lengths are kept balanced, and they are merged with a merge that switches
+ * to galloping (exponential search) when one run keeps winning.
+ * Sorted input costs one scan and nearly sorted input costs close to O(n).
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+public class AdaptiveSort {
+
+	// Arrays shorter than this are binary insertion sorted, and runs are extended to about this length.
+	private static final int MIN_MERGE = 32;
+
+	// A merge switches to galloping after one run wins this many times in a row.
+	private static final int MIN_GALLOP = 7;
+
+	// Enough run stack entries for any int array, given the run length invariants.
+	private static final int MAX_RUNS = 49;
+
+	private final int[] array;
+	private final int length;
+	private int minGallop = MIN_GALLOP;
+	private int[] scratch = new int[0];
+	private final int[] runBase = new int[MAX_RUNS];
+	private final int[] runLength = new int[MAX_RUNS];
+	private int stackSize = 0;
+
+	private AdaptiveSort(int[] array, int length) {
+		this.array = array;
+		this.length = length;
+	}
+
+	/**
+	 * sort sorts the whole array.
+	 * @param array This is the array to sort.
+	 */
+	public static void sort(int[] array) {
+		sort(array, 0, array.length);
+	}
+
+	/**
+	 * sort sorts array[low, high).
+	 * @param array This is the array to sort.
+	 * @param low This is the first index to sort (inclusive).
+	 * @param high This is the last index to sort (exclusive).
+	 */
+	public static void sort(int[] array, int low, int high) {
+		int remaining = high - low;
+		if (remaining < 2) {
+			return;
+		}
+
+		// This first scan doubles as an isSorted check: a sorted section is one run and we're done.
+		int firstRun = countRunAndMakeAscending(array, low, high);
+		if (firstRun == remaining) {
+			return;
+		}
+		if (remaining < MIN_MERGE) {
+			binarySort(array, low, high, low + firstRun);
+			return;
+		}
+
+		AdaptiveSort sorter = new AdaptiveSort(array, remaining);
+		int minRun = minRunLength(remaining);
+		int run = firstRun;
+		while (true) {
+			if (run < minRun) {
+				int force = remaining <= minRun ? remaining : minRun;
+				binarySort(array, low, low + force, low + run);
+				run = force;
+			}
+			sorter.pushRun(low, run);
+			sorter.mergeCollapse();
+			low += run;
+			remaining -= run;
+			if (remaining == 0) {
+				break;
+			}
+			run = countRunAndMakeAscending(array, low, high);
+		}
+		sorter.mergeForceCollapse();
+	}
+
+	/**
+	 * countRunAndMakeAscending finds the length of the run starting at low and reverses it if it is descending.
+	 * Only strictly descending runs are reversed, so equal values never swap places.
+	 * @param array This is the array.
+	 * @param low This is the start of the run.
+	 * @param high This is the end of the section (exclusive).
+	 * @return int The length of the run.
+	 */
+	private static int countRunAndMakeAscending(int[] array, int low, int high) {
+		int runHigh = low + 1;
+		if (runHigh == high) {
+			return 1;
+		}
+		if (array[runHigh++] < array[low]) {
+			while (runHigh < high && array[runHigh] < array[runHigh - 1]) {
+				runHigh++;
+			}
+			reverse(array, low, runHigh);
+		}
+		else {
+			while (runHigh < high && array[runHigh] >= array[runHigh - 1]) {
+				runHigh++;
+			}
+		}
+		return runHigh - low;
+	}
+
+	private static void reverse(int[] array, int low, int high) {
+		high--;
+		while (low < high) {
+			int temp = array[low];
+			array[low++] = array[high];
+			array[high--] = temp;
+		}
+	}
+
+	/**
+	 * binarySort extends the sorted prefix array[low, start) to array[low, high) with binary insertion sort.
+	 * @param array This is the array.
+	 * @param low This is the start of the section.
+	 * @param high This is the end of the section (exclusive).
+	 * @param start This is the end of the prefix that is already sorted.
+	 */
+	private static void binarySort(int[] array, int low, int high, int start) {
+		if (start == low) {
+			start++;
+		}
+		for (; start < high; start++) {
+			int pivot = array[start];
+			int left = low;
+			int right = start;
+			while (left < right) {
+				int mid = (left + right) >>> 1;
+				if (pivot < array[mid]) {
+					right = mid;
+				}
+				else {
+					left = mid + 1;
+				}
+			}
+			System.arraycopy(array, left, array, left + 1, start - left);
+			array[left] = pivot;
+		}
+	}
+
+	/**
+	 * minRunLength picks a minimum run length between MIN_MERGE / 2 and MIN_MERGE so that n / minRun is
+	 * a power of two or a little less, which keeps the final merges balanced.
+	 */
+	private static int minRunLength(int n) {
+		int r = 0;
+		while (n >= MIN_MERGE) {
+			r |= (n & 1);
+			n >>= 1;
+		}
+		return n + r;
+	}
+
+	private void pushRun(int base, int length) {
+		runBase[stackSize] = base;
+		runLength[stackSize] = length;
+		stackSize++;
+	}
+
+	/**
+	 * mergeCollapse merges runs on the stack until, from the top down, each run is longer than the sum of the
+	 * two above it and longer than the one directly above it. This keeps the stack O(log n) deep.
+	 */
+	private void mergeCollapse() {
+		while (stackSize > 1) {
+			int n = stackSize - 2;
+			if ((n > 0 && runLength[n - 1] <= runLength[n] + runLength[n + 1])
+					|| (n > 1 && runLength[n - 2] <= runLength[n] + runLength[n - 1])) {
+				if (runLength[n - 1] < runLength[n + 1]) {
+					n--;
+				}
+			}
+			else if (runLength[n] > runLength[n + 1]) {
+				break;
+			}
+			mergeAt(n);
+		}
+	}
+
+	/**
+	 * mergeForceCollapse merges all remaining runs into one.
+	 */
+	private void mergeForceCollapse() {
+		while (stackSize > 1) {
+			int n = stackSize - 2;
+			if (n > 0 && runLength[n - 1] < runLength[n + 1]) {
+				n--;
+			}
+			mergeAt(n);
+		}
+	}
+
+	/**
+	 * mergeAt merges the runs at stack positions i and i + 1.
+	 * Elements of the first run that are already in place, and elements of the second run that are already
+	 * in place, are skipped first. Runs that are already in order aren't merged at all.
+	 * @param i This is the stack position of the first run.
+	 */
+	private void mergeAt(int i) {
+		int base1 = runBase[i];
+		int length1 = runLength[i];
+		int base2 = runBase[i + 1];
+		int length2 = runLength[i + 1];
+
+		runLength[i] = length1 + length2;
+		if (i == stackSize - 3) {
+			runBase[i + 1] = runBase[i + 2];
+			runLength[i + 1] = runLength[i + 2];
+		}
+		stackSize--;
+
+		int k = gallopRight(array[base2], array, base1, length1, 0);
+		base1 += k;
+		length1 -= k;
+		if (length1 == 0) {
+			return;
+		}
+		length2 = gallopLeft(array[base1 + length1 - 1], array, base2, length2, length2 - 1);
+		if (length2 == 0) {
+			return;
+		}
+		if (length1 <= length2) {
+			mergeLow(base1, length1, base2, length2);
+		}
+		else {
+			mergeHigh(base1, length1, base2, length2);
+		}
+	}
+
+	/**
+	 * gallopLeft finds where key would go in a sorted section, before any elements equal to it.
+	 * The search starts at hint and grows exponentially before finishing with a binary search.
+	 * @return int The offset from base where key belongs.
+	 */
+	private static int gallopLeft(int key, int[] a, int base, int length, int hint) {
+		int lastOffset = 0;
+		int offset = 1;
+		if (key > a[base + hint]) {
+			int maxOffset = length - hint;
+			while (offset < maxOffset && key > a[base + hint + offset]) {
+				lastOffset = offset;
+				offset = (offset << 1) + 1;
+				if (offset <= 0) {
+					offset = maxOffset;
+				}
+			}
+			if (offset > maxOffset) {
+				offset = maxOffset;
+			}
+			lastOffset += hint;
+			offset += hint;
+		}
+		else {
+			int maxOffset = hint + 1;
+			while (offset < maxOffset && key <= a[base + hint - offset]) {
+				lastOffset = offset;
+				offset = (offset << 1) + 1;
+				if (offset <= 0) {
+					offset = maxOffset;
+				}
+			}
+			if (offset > maxOffset) {
+				offset = maxOffset;
+			}
+			int temp = lastOffset;
+			lastOffset = hint - offset;
+			offset = hint - temp;
+		}
+		lastOffset++;
+		while (lastOffset < offset) {
+			int mid = lastOffset + ((offset - lastOffset) >>> 1);
+			if (key > a[base + mid]) {
+				lastOffset = mid + 1;
+			}
+			else {
+				offset = mid;
+			}
+		}
+		return offset;
+	}
+
+	/**
+	 * gallopRight finds where key would go in a sorted section, after any elements equal to it.
+	 * The search starts at hint and grows exponentially before finishing with a binary search.
+	 * @return int The offset from base where key belongs.
+	 */
+	private static int gallopRight(int key, int[] a, int base, int length, int hint) {
+		int lastOffset = 0;
+		int offset = 1;
+		if (key < a[base + hint]) {
+			int maxOffset = hint + 1;
+			while (offset < maxOffset && key < a[base + hint - offset]) {
+				lastOffset = offset;
+				offset = (offset << 1) + 1;
+				if (offset <= 0) {
+					offset = maxOffset;
+				}
+			}
+			if (offset > maxOffset) {
+				offset = maxOffset;
+			}
+			int temp = lastOffset;
+			lastOffset = hint - offset;
+			offset = hint - temp;
+		}
+		else {
+			int maxOffset = length - hint;
+			while (offset < maxOffset && key >= a[base + hint + offset]) {
+				lastOffset = offset;
+				offset = (offset << 1) + 1;
+				if (offset <= 0) {
+					offset = maxOffset;
+				}
+			}
+			if (offset > maxOffset) {
+				offset = maxOffset;
+			}
+			lastOffset += hint;
+			offset += hint;
+		}
+		lastOffset++;
+		while (lastOffset < offset) {
+			int mid = lastOffset + ((offset - lastOffset) >>> 1);
+			if (key < a[base + mid]) {
+				offset = mid;
+			}
+			else {
+				lastOffset = mid + 1;
+			}
+		}
+		return offset;
+	}
+
+	/**
+	 * mergeLow merges two adjacent runs when the first is the shorter one. The first run is copied to scratch
+	 * and the merge fills the array from the left.
+	 */
+	private void mergeLow(int base1, int length1, int base2, int length2) {
+		int[] a = this.array;
+		int[] temp = ensureCapacity(length1);
+		System.arraycopy(a, base1, temp, 0, length1);
+		int cursor1 = 0;
+		int cursor2 = base2;
+		int dest = base1;
+
+		a[dest++] = a[cursor2++];
+		if (--length2 == 0) {
+			System.arraycopy(temp, cursor1, a, dest, length1);
+			return;
+		}
+		if (length1 == 1) {
+			System.arraycopy(a, cursor2, a, dest, length2);
+			a[dest + length2] = temp[cursor1];
+			return;
+		}
+
+		int minGallop = this.minGallop;
+		outer:
+		while (true) {
+			int count1 = 0;
+			int count2 = 0;
+
+			// Merge one element at a time until one run starts winning consistently.
+			do {
+				if (a[cursor2] < temp[cursor1]) {
+					a[dest++] = a[cursor2++];
+					count2++;
+					count1 = 0;
+					if (--length2 == 0) {
+						break outer;
+					}
+				}
+				else {
+					a[dest++] = temp[cursor1++];
+					count1++;
+					count2 = 0;
+					if (--length1 == 1) {
+						break outer;
+					}
+				}
+			} while ((count1 | count2) < minGallop);
+
+			// Gallop, copying whole blocks at a time, until that stops paying off.
+			do {
+				count1 = gallopRight(a[cursor2], temp, cursor1, length1, 0);
+				if (count1 != 0) {
+					System.arraycopy(temp, cursor1, a, dest, count1);
+					dest += count1;
+					cursor1 += count1;
+					length1 -= count1;
+					if (length1 <= 1) {
+						break outer;
+					}
+				}
+				a[dest++] = a[cursor2++];
+				if (--length2 == 0) {
+					break outer;
+				}
+
+				count2 = gallopLeft(temp[cursor1], a, cursor2, length2, 0);
+				if (count2 != 0) {
+					System.arraycopy(a, cursor2, a, dest, count2);
+					dest += count2;
+					cursor2 += count2;
+					length2 -= count2;
+					if (length2 == 0) {
+						break outer;
+					}
+				}
+				a[dest++] = temp[cursor1++];
+				if (--length1 == 1) {
+					break outer;
+				}
+				minGallop--;
+			} while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+			if (minGallop < 0) {
+				minGallop = 0;
+			}
+			minGallop += 2;
+		}
+		this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+		if (length1 == 1) {
+			System.arraycopy(a, cursor2, a, dest, length2);
+			a[dest + length2] = temp[cursor1];
+		}
+		else {
+			System.arraycopy(temp, cursor1, a, dest, length1);
+		}
+	}
+
+	/**
+	 * mergeHigh merges two adjacent runs when the second is the shorter one. The second run is copied to scratch
+	 * and the merge fills the array from the right.
+	 */
+	private void mergeHigh(int base1, int length1, int base2, int length2) {
+		int[] a = this.array;
+		int[] temp = ensureCapacity(length2);
+		System.arraycopy(a, base2, temp, 0, length2);
+		int cursor1 = base1 + length1 - 1;
+		int cursor2 = length2 - 1;
+		int dest = base2 + length2 - 1;
+
+		a[dest--] = a[cursor1--];
+		if (--length1 == 0) {
+			System.arraycopy(temp, 0, a, dest - (length2 - 1), length2);
+			return;
+		}
+		if (length2 == 1) {
+			dest -= length1;
+			cursor1 -= length1;
+			System.arraycopy(a, cursor1 + 1, a, dest + 1, length1);
+			a[dest] = temp[cursor2];
+			return;
+		}
+
+		int minGallop = this.minGallop;
+		outer:
+		while (true) {
+			int count1 = 0;
+			int count2 = 0;
+
+			// Merge one element at a time until one run starts winning consistently.
+			do {
+				if (temp[cursor2] < a[cursor1]) {
+					a[dest--] = a[cursor1--];
+					count1++;
+					count2 = 0;
+					if (--length1 == 0) {
+						break outer;
+					}
+				}
+				else {
+					a[dest--] = temp[cursor2--];
+					count2++;
+					count1 = 0;
+					if (--length2 == 1) {
+						break outer;
+					}
+				}
+			} while ((count1 | count2) < minGallop);
+
+			// Gallop, copying whole blocks at a time, until that stops paying off.
+			do {
+				count1 = length1 - gallopRight(temp[cursor2], a, base1, length1, length1 - 1);
+				if (count1 != 0) {
+					dest -= count1;
+					cursor1 -= count1;
+					length1 -= count1;
+					System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+					if (length1 == 0) {
+						break outer;
+					}
+				}
+				a[dest--] = temp[cursor2--];
+				if (--length2 == 1) {
+					break outer;
+				}
+
+				count2 = length2 - gallopLeft(a[cursor1], temp, 0, length2, length2 - 1);
+				if (count2 != 0) {
+					dest -= count2;
+					cursor2 -= count2;
+					length2 -= count2;
+					System.arraycopy(temp, cursor2 + 1, a, dest + 1, count2);
+					if (length2 <= 1) {
+						break outer;
+					}
+				}
+				a[dest--] = a[cursor1--];
+				if (--length1 == 0) {
+					break outer;
+				}
+				minGallop--;
+			} while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+			if (minGallop < 0) {
+				minGallop = 0;
+			}
+			minGallop += 2;
+		}
+		this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+		if (length2 == 1) {
+			dest -= length1;
+			cursor1 -= length1;
+			System.arraycopy(a, cursor1 + 1, a, dest + 1, length1);
+			a[dest] = temp[cursor2];
+		}
+		else {
+			System.arraycopy(temp, 0, a, dest - (length2 - 1), length2);
+		}
+	}
+
+	/**
+	 * ensureCapacity grows the scratch array to hold at least the given number of elements.
+	 * It grows in powers of two but never past half the section, which is the most a merge ever needs.
+	 */
+	private int[] ensureCapacity(int minCapacity) {
+		if (scratch.length < minCapacity) {
+			int capacity = Integer.highestOneBit(minCapacity) << 1;
+			if (capacity < 0 || capacity > (length >>> 1)) {
+				capacity = Math.max(minCapacity, length >>> 1);
+			}
+			scratch = new int[capacity];
+		}
+		return scratch;
+	}
+}
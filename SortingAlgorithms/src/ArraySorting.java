@@ -6,10 +6,23 @@
  * @since 2020-05-02
  */
 
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
 import java.util.Random;
 import java.util.Scanner;
 
 public class ArraySorting {
+	// Block size that bottomUpMergeSort insertion sorts before merging.
+	private static final int INSERTION_RUN = 32;
+	
+	// Sections at or below this size are insertion sorted by introSort.
+	private static final int INTRO_CUTOFF = 24;
+	
+	// Sections at or above this size use a ninther pivot in introSort.
+	private static final int NINTHER_THRESHOLD = 128;
+	
 	private int array[];
 	
 	/**
@@ -28,11 +41,26 @@ public class ArraySorting {
 	 * @param size This is the given size for the array.
 	 */
 	public ArraySorting(int size) {
-		Random rand = new Random(); 
-		this.array = new int[size];
-		for(int i = 0; i < size; i++) {
-			this.array[i] = rand.nextInt(1000000000);
-		}
+		this(size, WorkloadGenerator.Distribution.UNIFORM, new Random().nextLong());
+	}
+	
+	/**
+	 * ArraySorting(size, distribution, seed) is a constructor that builds an array of a given size and distribution.
+	 * The array is filled in parallel, and the same seed always gives the same array.
+	 * @param size This is the given size for the array.
+	 * @param distribution This is the distribution of the values.
+	 * @param seed This is the seed for the random values.
+	 */
+	public ArraySorting(int size, WorkloadGenerator.Distribution distribution, long seed) {
+		this.array = WorkloadGenerator.generate(distribution, size, seed);
+	}
+	
+	/**
+	 * ArraySorting(arr) is a constructor that wraps an existing array. The array is sorted in place, not copied.
+	 * @param arr This is the array to be sorted.
+	 */
+	public ArraySorting(int[] arr) {
+		this.array = arr;
 	}
 	
 	/**
@@ -57,6 +85,11 @@ public class ArraySorting {
 	 */
 	private void merge(int low, int mid, int high) {
 		
+		if (SortMetrics.ENABLED) {
+			SortMetrics.allocate(4L * (high - low + 1));
+			SortMetrics.move(high - low + 1);
+		}
+		
 		// Populate left
 		int left[] = new int [mid-low+1];
 		for (int i = 0; i < left.length; i++) {
@@ -74,6 +107,10 @@ public class ArraySorting {
 		int j = 0;
 		int k = low;
 		while(i < left.length && j < right.length) {
+			if (SortMetrics.ENABLED) {
+				SortMetrics.compare(1);
+				SortMetrics.move(1);
+			}
 			if (left[i] < right[j]) {
 				this.array[k] = left[i];
 				i++;
@@ -84,6 +121,9 @@ public class ArraySorting {
 			}
 			k++;
 		}
+		if (SortMetrics.ENABLED) {
+			SortMetrics.move(left.length - i);
+		}
 		while(i < left.length) {
 			this.array[k] = left[i];
 			i++;
@@ -97,12 +137,200 @@ public class ArraySorting {
 	 * @param high This is the right index of the array partition to sort.
 	 */
 	public void mergeSort(int low, int high) {
-		if (low < high) {
-			int mid = (low+high)/2;
-			mergeSort(low, mid);
-			mergeSort(mid+1, high);
-			merge(low, mid, high);
-		}		
+		int metricsDepth = SortMetrics.ENABLED ? SortMetrics.enter("mergeSort") : 0;
+		try {
+			if (low < high) {
+				int mid = (low+high) >>> 1;
+				mergeSort(low, mid);
+				mergeSort(mid+1, high);
+				merge(low, mid, high);
+			}
+		}
+		finally {
+			if (SortMetrics.ENABLED) {
+				SortMetrics.exit(metricsDepth);
+			}
+		}
+	}
+	
+	/**
+	 * bottomUpMergeSort is an iterative merge sort that allocates a single scratch array for the whole sort.
+	 */
+	public void bottomUpMergeSort() {
+		int metricsDepth = SortMetrics.ENABLED ? SortMetrics.enter("bottomUpMergeSort") : 0;
+		try {
+			if (SortMetrics.ENABLED) {
+				SortMetrics.allocate(4L * this.array.length);
+			}
+			bottomUpMergeSort(new int[this.array.length]);
+		}
+		finally {
+			if (SortMetrics.ENABLED) {
+				SortMetrics.exit(metricsDepth);
+			}
+		}
+	}
+	
+	/**
+	 * bottomUpMergeSort is an iterative merge sort that uses a caller supplied scratch array and allocates nothing.
+	 * Each pass merges runs from one array into the other, so values are never copied back and forth within a pass.
+	 * Adjacent runs that are already in order are copied across instead of merged.
+	 * @param scratch This is a scratch array at least as long as the underlying array.
+	 */
+	public void bottomUpMergeSort(int[] scratch) {
+		int n = this.array.length;
+		if (scratch.length < n) {
+			throw new IllegalArgumentException("Error: scratch array is smaller than the array.");
+		}
+		int metricsDepth = SortMetrics.ENABLED ? SortMetrics.enter("bottomUpMergeSort") : 0;
+		try {
+			if (SortMetrics.ENABLED) {
+				SortMetrics.phase("insertionSort");
+			}
+			
+			// Insertion sort small blocks so the first merge pass starts with runs of INSERTION_RUN.
+			// The loop indices are long, like OffHeapSorting's, so they can't wrap on arrays of more than 2^30 values.
+			for (long low = 0; low < n; low += INSERTION_RUN) {
+				insertionSort((int) low, (int) Math.min(low + INSERTION_RUN, n) - 1);
+			}
+			
+			if (SortMetrics.ENABLED) {
+				SortMetrics.phase("merge");
+			}
+			int src[] = this.array;
+			int dst[] = scratch;
+			for (long width = INSERTION_RUN; width < n; width *= 2) {
+				for (long start = 0; start < n; start += 2 * width) {
+					int low = (int) start;
+					int mid = (int) Math.min(start + width, n);
+					int high = (int) Math.min(start + 2 * width, n);
+					if (SortMetrics.ENABLED) {
+						SortMetrics.compare(mid < high ? 1 : 0);
+					}
+					if (mid == high || src[mid-1] <= src[mid]) {
+						if (SortMetrics.ENABLED) {
+							SortMetrics.move(high - low);
+						}
+						System.arraycopy(src, low, dst, low, high - low);
+					}
+					else {
+						mergeRuns(src, dst, low, mid, high);
+					}
+				}
+				int temp[] = src;
+				src = dst;
+				dst = temp;
+			}
+			if (src != this.array) {
+				System.arraycopy(src, 0, this.array, 0, n);
+			}
+		}
+		finally {
+			if (SortMetrics.ENABLED) {
+				SortMetrics.exit(metricsDepth);
+			}
+		}
+	}
+	
+	/**
+	 * mergeRuns merges the sorted runs src[low, mid) and src[mid, high) into dst. Ties take from the left run.
+	 * @param src This is the array holding the two runs.
+	 * @param dst This is the array to merge into.
+	 * @param low This is the first index of the left run.
+	 * @param mid This is the first index of the right run.
+	 * @param high This is one past the last index of the right run.
+	 */
+	private static void mergeRuns(int src[], int dst[], int low, int mid, int high) {
+		int i = low;
+		int j = mid;
+		int k = low;
+		while (i < mid && j < high) {
+			if (src[j] < src[i]) {
+				dst[k++] = src[j++];
+			}
+			else {
+				dst[k++] = src[i++];
+			}
+		}
+		if (SortMetrics.ENABLED) {
+			SortMetrics.compare(k - low);
+			SortMetrics.move(high - low);
+		}
+		System.arraycopy(src, i, dst, k, mid - i);
+		System.arraycopy(src, j, dst, k + mid - i, high - j);
+	}
+	
+	/**
+	 * insertionSort sorts a small section of the array in place.
+	 * @param low This is the first index of the section to sort.
+	 * @param high This is the last index of the section to sort.
+	 */
+	private void insertionSort(int low, int high) {
+		for (int i = low + 1; i <= high; i++) {
+			int value = this.array[i];
+			int j = i - 1;
+			while (j >= low && this.array[j] > value) {
+				this.array[j+1] = this.array[j];
+				j--;
+			}
+			this.array[j+1] = value;
+			if (SortMetrics.ENABLED) {
+				// One comparison per shift, plus the one that stopped the loop unless it ran off the front.
+				SortMetrics.compare(i - j - (j < low ? 1 : 0));
+				SortMetrics.move(i - j);
+			}
+		}
+	}
+	
+	/**
+	 * parallelMergeSort sorts the array with a fork-join merge sort that also merges in parallel.
+	 * The result is the same as mergeSort(0, array.length-1).
+	 * @param parallelism This is the number of worker threads to use.
+	 */
+	public void parallelMergeSort(int parallelism) {
+		ParallelMergeSort.sort(this.array, 0, this.array.length-1, parallelism);
+	}
+	
+	/**
+	 * radixSort sorts the array with an LSD radix sort, counting and scattering in parallel for large arrays.
+	 */
+	public void radixSort() {
+		RadixSort.sort(this.array);
+	}
+	
+	/**
+	 * adaptiveSort sorts the array with a natural merge sort that takes advantage of runs already in the array.
+	 * An already sorted array costs a single isSorted-style scan.
+	 */
+	public void adaptiveSort() {
+		AdaptiveSort.sort(this.array);
+	}
+	
+	/**
+	 * argsort returns the indices that would sort the array, without changing the array.
+	 * Equal values keep their original relative order.
+	 * @return int[] The permutation, where array[result[0]] is the smallest value.
+	 */
+	public int[] argsort() {
+		return KeyValueSort.argsort(this.array);
+	}
+	
+	/**
+	 * sortWithValues sorts the array as keys and moves each value in the parallel array along with its key.
+	 * Equal keys keep their original relative order.
+	 * @param values This is an array of values the same length as the underlying array.
+	 */
+	public void sortWithValues(int[] values) {
+		KeyValueSort.stableSortByKey(this.array, values);
+	}
+	
+	/**
+	 * sortWithValues sorts the array as keys and moves each value in the parallel array along with its key.
+	 * Equal keys keep their original relative order.
+	 * @param values This is an array of values the same length as the underlying array.
+	 */
+	public void sortWithValues(long[] values) {
+		KeyValueSort.stableSortByKey(this.array, values);
 	}
 	
 	/**
@@ -111,6 +339,9 @@ public class ArraySorting {
 	 * @param y This is the second index to swap.
 	 */
 	private void swap(int x, int y) {
+		if (SortMetrics.ENABLED) {
+			SortMetrics.move(2);
+		}
 		int temp = this.array[x];
 		this.array[x] = this.array[y];
 		this.array[y] = temp;
@@ -125,6 +356,9 @@ public class ArraySorting {
 	private int partition(int start, int end) {
 		int x = this.array[end];
 		int i = start - 1;
+		if (SortMetrics.ENABLED) {
+			SortMetrics.compare(end - start);
+		}
 		for (int j = start; j < end; j++) {
 			if (this.array[j] < x) {
 				i++;
@@ -141,10 +375,18 @@ public class ArraySorting {
 	 * @param end This is the last element of the array to be acted on.
 	 */
 	public void quickSort(int start, int end) {
-		if (start < end) {
-			int pivot = partition(start, end);
-			quickSort(start, pivot-1);
-			quickSort(pivot+1, end);		
+		int metricsDepth = SortMetrics.ENABLED ? SortMetrics.enter("quickSort") : 0;
+		try {
+			if (start < end) {
+				int pivot = partition(start, end);
+				quickSort(start, pivot-1);
+				quickSort(pivot+1, end);
+			}
+		}
+		finally {
+			if (SortMetrics.ENABLED) {
+				SortMetrics.exit(metricsDepth);
+			}
 		}
 	}
 	
@@ -153,19 +395,36 @@ public class ArraySorting {
 	 * @param parent This is the top node to "heapify".
 	 */
 	private void maxHeapify(int parent, int size) {
+		maxHeapify(0, parent, size);
+	}
+	
+	/**
+	 * maxHeapify converts a node and its underlying nodes into a heap, for a heap stored starting at offset.
+	 * @param offset This is the index of the heap's root in the array.
+	 * @param parent This is the top node to "heapify", relative to offset.
+	 * @param size This is the number of elements in the heap.
+	 */
+	private void maxHeapify(int offset, int parent, int size) {
 		int left = parent * 2 + 1;
 		int right = left + 1;
 		int max = parent;
 		
-		if(left < size && this.array[left] > this.array[max]) {
+		if (SortMetrics.ENABLED) {
+			SortMetrics.push();
+			SortMetrics.compare((left < size ? 1 : 0) + (right < size ? 1 : 0));
+		}
+		if(left < size && this.array[offset+left] > this.array[offset+max]) {
 			max = left;
 		}
-		if(right < size && this.array[right] > this.array[max]) {
+		if(right < size && this.array[offset+right] > this.array[offset+max]) {
 			max = right;
 		}
 		if (max != parent) {
-			swap(max, parent);
-			maxHeapify(max, size);
+			swap(offset+max, offset+parent);
+			maxHeapify(offset, max, size);
+		}
+		if (SortMetrics.ENABLED) {
+			SortMetrics.pop();
 		}
 	}
 	
@@ -182,11 +441,421 @@ public class ArraySorting {
 	 * heapSort takes an array and sorts it by turning it into a max heap.
 	 */
 	public void heapSort() {
-		buildMaxHeap();
-		for(int i = this.array.length-1; i > 0; i--) {
-			swap(i, 0);
-			maxHeapify(0, i);			
+		int metricsDepth = SortMetrics.ENABLED ? SortMetrics.enter("heapSort") : 0;
+		try {
+			if (SortMetrics.ENABLED) {
+				SortMetrics.phase("buildMaxHeap");
+			}
+			buildMaxHeap();
+			if (SortMetrics.ENABLED) {
+				SortMetrics.phase("extract");
+			}
+			for(int i = this.array.length-1; i > 0; i--) {
+				swap(i, 0);
+				maxHeapify(0, i);
+			}
+		}
+		finally {
+			if (SortMetrics.ENABLED) {
+				SortMetrics.exit(metricsDepth);
+			}
+		}
+	}
+	
+	/**
+	 * heapSort(low, high) sorts a section of the array by turning that section into a max heap.
+	 * @param low This is the first index of the section to sort.
+	 * @param high This is the last index of the section to sort.
+	 */
+	public void heapSort(int low, int high) {
+		int metricsDepth = SortMetrics.ENABLED ? SortMetrics.enter("heapSort") : 0;
+		try {
+			int size = high - low + 1;
+			for(int i = (size / 2 - 1); i >= 0; i--) {
+				maxHeapify(low, i, size);
+			}
+			for(int i = size-1; i > 0; i--) {
+				swap(low+i, low);
+				maxHeapify(low, 0, i);
+			}
+		}
+		finally {
+			if (SortMetrics.ENABLED) {
+				SortMetrics.exit(metricsDepth);
+			}
+		}
+	}
+	
+	/**
+	 * daryHeapSort sorts the array with a heap that has 2, 4 or 8 children per node.
+	 * It sifts with a hole and Floyd's bottom-up method, so it does fewer comparisons and writes than heapSort,
+	 * and a wider heap misses the cache less often on large arrays.
+	 * @param arity This is the number of children per node: 2, 4 or 8.
+	 */
+	public void daryHeapSort(int arity) {
+		DaryHeapSort.sort(this.array, arity);
+	}
+	
+	/**
+	 * branchlessSort sorts the array with an introsort whose partition and small section sorts avoid
+	 * unpredictable branches, which makes it much faster than introSort on random data.
+	 */
+	public void branchlessSort() {
+		BranchlessSort.sort(this.array);
+	}
+	
+	/**
+	 * introSort sorts the array with quick sort, falling back to heapSort when the recursion gets too deep.
+	 * It runs in O(n log n) time in the worst case and uses O(log n) stack.
+	 */
+	public void introSort() {
+		introSort(0, this.array.length-1);
+	}
+	
+	/**
+	 * introSort sorts a section of the array with quick sort, falling back to heapSort when the recursion gets too deep.
+	 * @param low This is the first index of the section to sort.
+	 * @param high This is the last index of the section to sort.
+	 */
+	public void introSort(int low, int high) {
+		int metricsDepth = SortMetrics.ENABLED ? SortMetrics.enter("introSort") : 0;
+		try {
+			if (low < high) {
+				int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(high - low + 1));
+				introSortLoop(low, high, depthLimit);
+			}
+		}
+		finally {
+			if (SortMetrics.ENABLED) {
+				SortMetrics.exit(metricsDepth);
+			}
+		}
+	}
+	
+	/**
+	 * introSortLoop partitions around a median-of-three or ninther pivot into less than, equal to and greater than sections.
+	 * It recurses on the smaller side and loops on the larger one, so the stack stays O(log n) deep.
+	 * Sections below INTRO_CUTOFF are insertion sorted and sections that reach the depth limit are heap sorted.
+	 * @param low This is the first index of the section to sort.
+	 * @param high This is the last index of the section to sort.
+	 * @param depthLimit This is the number of partitions left before falling back to heapSort.
+	 */
+	private void introSortLoop(int low, int high, int depthLimit) {
+		if (SortMetrics.ENABLED) {
+			SortMetrics.push();
+		}
+		while (high - low + 1 > INTRO_CUTOFF) {
+			if (depthLimit == 0) {
+				heapSort(low, high);
+				if (SortMetrics.ENABLED) {
+					SortMetrics.pop();
+				}
+				return;
+			}
+			depthLimit--;
+			
+			swap(low, choosePivot(low, high));
+			int pivot = this.array[low];
+			
+			// Bentley-McIlroy three-way partition. Keys equal to the pivot are parked at both ends
+			// while scanning, then swapped into the middle so that [lt, gt] holds every pivot copy.
+			int i = low;
+			int j = high + 1;
+			int p = low;
+			int q = high + 1;
+			while (true) {
+				while (this.array[++i] < pivot) {
+					if (i == high) {
+						break;
+					}
+				}
+				while (pivot < this.array[--j]) {
+					if (j == low) {
+						break;
+					}
+				}
+				if (i == j && this.array[i] == pivot) {
+					swap(++p, i);
+				}
+				if (i >= j) {
+					if (SortMetrics.ENABLED) {
+						SortMetrics.compare(i == j ? 1 : 0);
+					}
+					break;
+				}
+				swap(i, j);
+				if (SortMetrics.ENABLED) {
+					// The two equal-key checks below.
+					SortMetrics.compare(2);
+				}
+				if (this.array[i] == pivot) {
+					swap(++p, i);
+				}
+				if (this.array[j] == pivot) {
+					swap(--q, j);
+				}
+			}
+			if (SortMetrics.ENABLED) {
+				// The scans only move i up and j down, one comparison per step.
+				SortMetrics.compare(i - low + high + 1 - j);
+			}
+			i = j + 1;
+			for (int k = low; k <= p; k++) {
+				swap(k, j--);
+			}
+			for (int k = high; k >= q; k--) {
+				swap(k, i++);
+			}
+			int lt = j + 1;
+			int gt = i - 1;
+			
+			if (lt - low < high - gt) {
+				introSortLoop(low, lt-1, depthLimit);
+				low = gt + 1;
+			}
+			else {
+				introSortLoop(gt+1, high, depthLimit);
+				high = lt - 1;
+			}
+		}
+		insertionSort(low, high);
+		if (SortMetrics.ENABLED) {
+			SortMetrics.pop();
+		}
+	}
+	
+	/**
+	 * choosePivot picks the median of three for small sections and Tukey's ninther for large ones.
+	 * @param low This is the first index of the section.
+	 * @param high This is the last index of the section.
+	 * @return int This is the index of the chosen pivot.
+	 */
+	private int choosePivot(int low, int high) {
+		int mid = (low + high) >>> 1;
+		if (high - low + 1 < NINTHER_THRESHOLD) {
+			return medianOfThree(low, mid, high);
+		}
+		int step = (high - low + 1) / 8;
+		int a = medianOfThree(low, low + step, low + 2 * step);
+		int b = medianOfThree(mid - step, mid, mid + step);
+		int c = medianOfThree(high - 2 * step, high - step, high);
+		return medianOfThree(a, b, c);
+	}
+	
+	/**
+	 * medianOfThree returns whichever of the three indices holds the median value.
+	 * @param a This is an index in the array.
+	 * @param b This is an index in the array.
+	 * @param c This is an index in the array.
+	 * @return int The index of the median value.
+	 */
+	private int medianOfThree(int a, int b, int c) {
+		int x = this.array[a];
+		int y = this.array[b];
+		int z = this.array[c];
+		if (SortMetrics.ENABLED) {
+			SortMetrics.compare((x < y ? y < z : x < z) ? 2 : 3);
+		}
+		if (x < y) {
+			return y < z ? b : (x < z ? c : a);
 		}
+		return x < z ? a : (y < z ? c : b);
+	}
+	
+	/**
+	 * select finds the kth smallest value (counting from 0) and rearranges the array so that it sits at index k,
+	 * with no larger value before it and no smaller value after it.
+	 * It uses partition with a median-of-three pivot and switches to a median-of-medians pivot if the
+	 * section stops halving, so it runs in O(n) time in the worst case.
+	 * @param k This is the rank of the value to find.
+	 * @return int The kth smallest value.
+	 */
+	public int select(int k) {
+		if (k < 0 || k >= this.array.length) {
+			throw new IllegalArgumentException("Error: rank " + k + " is out of bounds.");
+		}
+		selectRange(0, this.array.length-1, k, false);
+		return this.array[k];
+	}
+	
+	/**
+	 * partialSort sorts only the first k positions, which end up holding the k smallest values in order.
+	 * The rest of the array is left in no particular order. It runs in O(n + k log k) time.
+	 * @param k This is the number of positions to sort.
+	 */
+	public void partialSort(int k) {
+		if (k < 0 || k > this.array.length) {
+			throw new IllegalArgumentException("Error: " + k + " is out of bounds.");
+		}
+		if (k == 0) {
+			return;
+		}
+		if (k == this.array.length) {
+			introSort();
+			return;
+		}
+		// After selecting rank k-1 the first k-1 positions hold the smaller values, in no particular order.
+		selectRange(0, this.array.length-1, k-1, false);
+		introSort(0, k-2);
+	}
+	
+	/**
+	 * topK returns the k largest values in descending order without changing the array.
+	 * It keeps a min heap of the k largest values seen so far, so it runs in O(n log k) time and O(k) space.
+	 * @param k This is the number of values to return.
+	 * @return int[] The k largest values, largest first.
+	 */
+	public int[] topK(int k) {
+		if (k < 0 || k > this.array.length) {
+			throw new IllegalArgumentException("Error: " + k + " is out of bounds.");
+		}
+		int heap[] = new int[k];
+		if (k == 0) {
+			return heap;
+		}
+		System.arraycopy(this.array, 0, heap, 0, k);
+		for (int i = k / 2 - 1; i >= 0; i--) {
+			minHeapify(heap, i, k);
+		}
+		for (int i = k; i < this.array.length; i++) {
+			if (this.array[i] > heap[0]) {
+				heap[0] = this.array[i];
+				minHeapify(heap, 0, k);
+			}
+		}
+		// Heap sorting a min heap leaves it in descending order.
+		for (int i = k-1; i > 0; i--) {
+			int temp = heap[0];
+			heap[0] = heap[i];
+			heap[i] = temp;
+			minHeapify(heap, 0, i);
+		}
+		return heap;
+	}
+	
+	/**
+	 * minHeapify sifts a node down a min heap stored in the given array.
+	 * @param heap This is the array holding the heap.
+	 * @param parent This is the node to sift down.
+	 * @param size This is the number of elements in the heap.
+	 */
+	private static void minHeapify(int heap[], int parent, int size) {
+		int value = heap[parent];
+		while (true) {
+			int child = parent * 2 + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && heap[child+1] < heap[child]) {
+				child++;
+			}
+			if (heap[child] >= value) {
+				break;
+			}
+			heap[parent] = heap[child];
+			parent = child;
+		}
+		heap[parent] = value;
+	}
+	
+	/**
+	 * selectRange moves the kth smallest value of a section to index k.
+	 * Each step partitions around a median-of-three pivot using partition. If two steps in a row fail to
+	 * halve the section, for example on many duplicate keys, it switches to a median-of-medians pivot with a
+	 * three-way partition, which guarantees the section shrinks by a constant fraction.
+	 * @param low This is the first index of the section.
+	 * @param high This is the last index of the section.
+	 * @param k This is the index the selected value should end up at.
+	 * @param medianOfMedians This is whether to use median-of-medians pivots from the start.
+	 */
+	private void selectRange(int low, int high, int k, boolean medianOfMedians) {
+		int checkpoint = high - low + 1;
+		int steps = 0;
+		while (low < high) {
+			if (!medianOfMedians) {
+				swap(medianOfThree(low, (low + high) >>> 1, high), high);
+				int pivot = partition(low, high);
+				if (k == pivot) {
+					return;
+				}
+				if (k < pivot) {
+					high = pivot - 1;
+				}
+				else {
+					low = pivot + 1;
+				}
+				if (++steps == 2) {
+					medianOfMedians = high - low + 1 > checkpoint / 2;
+					checkpoint = high - low + 1;
+					steps = 0;
+				}
+			}
+			else {
+				long bounds = threeWayPartition(low, high, this.array[medianOfMedians(low, high)]);
+				int lt = (int) (bounds >>> 32);
+				int gt = (int) bounds;
+				if (k < lt) {
+					high = lt - 1;
+				}
+				else if (k > gt) {
+					low = gt + 1;
+				}
+				else {
+					return;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * medianOfMedians finds a pivot that is guaranteed to have at least 30% of the section on each side.
+	 * It sorts groups of five, moves each group's median to the front of the section and then selects the
+	 * median of those medians.
+	 * @param low This is the first index of the section.
+	 * @param high This is the last index of the section.
+	 * @return int The index of the pivot.
+	 */
+	private int medianOfMedians(int low, int high) {
+		if (high - low < 5) {
+			insertionSort(low, high);
+			return (low + high) >>> 1;
+		}
+		int groups = 0;
+		for (int start = low; start <= high; start += 5) {
+			int end = min(start + 4, high);
+			insertionSort(start, end);
+			swap(low + groups, (start + end) >>> 1);
+			groups++;
+		}
+		int mid = low + (groups - 1) / 2;
+		selectRange(low, low + groups - 1, mid, true);
+		return mid;
+	}
+	
+	/**
+	 * threeWayPartition splits a section into values less than, equal to and greater than the pivot.
+	 * @param low This is the first index of the section.
+	 * @param high This is the last index of the section.
+	 * @param pivot This is the pivot value.
+	 * @return long The first index equal to the pivot in the high 32 bits and the last in the low 32 bits.
+	 */
+	private long threeWayPartition(int low, int high, int pivot) {
+		int lt = low;
+		int gt = high;
+		int i = low;
+		while (i <= gt) {
+			int value = this.array[i];
+			if (value < pivot) {
+				swap(lt++, i++);
+			}
+			else if (value > pivot) {
+				swap(i, gt--);
+			}
+			else {
+				i++;
+			}
+		}
+		return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
 	}
 	
 	/**
@@ -213,8 +882,63 @@ public class ArraySorting {
 		System.out.println("");
 	}
 	
+	/**
+	 * allocatedBytes returns the number of bytes the current thread has allocated so far, or -1 when the JVM can't tell.
+	 * @return long The bytes allocated by this thread.
+	 */
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+	
+	/**
+	 * gcCount returns the total number of garbage collections run so far.
+	 * @return long The number of collections.
+	 */
+	private static long gcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, bean.getCollectionCount());
+		}
+		return count;
+	}
 	
-	public static void main(String args[]) {
+	/**
+	 * allocationBenchmark sorts the same random array with mergeSort and bottomUpMergeSort and prints
+	 * the time, bytes allocated and garbage collections for each.
+	 * @param size This is the size of the array to sort.
+	 */
+	public static void allocationBenchmark(int size) {
+		ArraySorting input = new ArraySorting(size);
+		String names[] = {"Merge Sort", "Bottom Up Merge Sort"};
+		for (int round = 0; round < 2; round++) {
+			for (int k = 0; k < names.length; k++) {
+				ArraySorting copy = new ArraySorting(input.array.clone());
+				long gcs = gcCount();
+				long bytes = allocatedBytes();
+				long startTime = System.currentTimeMillis();
+				if (k == 0) {
+					copy.mergeSort(0, copy.array.length-1);
+				}
+				else {
+					copy.bottomUpMergeSort();
+				}
+				long time = System.currentTimeMillis() - startTime;
+				bytes = allocatedBytes() - bytes;
+				gcs = gcCount() - gcs;
+				// The first round only warms up the JIT.
+				if (round == 1) {
+					System.out.println(names[k] + " - Size: " + size + ", Time: " + time + ", Bytes allocated: " + bytes
+							+ " (" + (bytes / Math.max(1, 4L * size)) + "x array), GCs: " + gcs + ", Is sorted: " + copy.isSorted());
+				}
+			}
+		}
+	}
+	
+	public static void main(String args[]) throws IOException, InterruptedException {
 		Scanner scan = new Scanner(System.in);
 		long startTime;
 		
@@ -225,7 +949,7 @@ public class ArraySorting {
 		int userInput = scan.nextInt();
 		ArraySorting userArray = new ArraySorting(userInput);
 		
-		String commands = "[0] Quit\n[1] print\n[2] mergeSort\n[3] quickSort\n[4] rerandomizeArray\n[5] resizeArray\n[6] isSorted\n[7] heapSort\n[8] Test sorting algorithms";
+		String commands = "[0] Quit\n[1] print\n[2] mergeSort\n[3] quickSort\n[4] rerandomizeArray\n[5] resizeArray\n[6] isSorted\n[7] heapSort\n[8] Test sorting algorithms\n[9] parallelMergeSort\n[10] Test parallelMergeSort scaling\n[11] bottomUpMergeSort\n[12] Test merge sort allocation\n[13] introSort\n[14] radixSort\n[15] adaptiveSort\n[16] select\n[17] topK\n[18] Print sort metrics\n[19] daryHeapSort\n[20] branchlessSort\n[21] Off-heap sort\n[22] Incremental sort in batches";
 	
 		
 		// Handle UI
@@ -271,26 +995,18 @@ public class ArraySorting {
 			    case 6: // isSorted
 			    	System.out.println("Sorted: " + userArray.isSorted());
 			    	break;
-			    case 8: // Assignment
-			    	int i = 10;
-			    	while (i <= 10000000) {
-				    	userArray = new ArraySorting(i);
-				    	startTime = System.currentTimeMillis();
-				    	userArray.mergeSort(0, userArray.array.length-1);
-				    	System.out.println("Merge Sort - Size: " + i + ", Time: " + (System.currentTimeMillis() - startTime));
-				    	System.out.println("Is sorted: " + userArray.isSorted());
-				    	userArray = new ArraySorting(i);
-				    	startTime = System.currentTimeMillis();
-				    	userArray.quickSort(0, userArray.array.length-1);
-				    	System.out.println("Quick Sort - Size: " + i + ", Time: " + (System.currentTimeMillis() - startTime));
-				    	System.out.println("Is sorted: " + userArray.isSorted());
-				    	userArray = new ArraySorting(i);
-				    	startTime = System.currentTimeMillis();
-				    	userArray.heapSort();
-				    	System.out.println("Heap Sort - Size: " + i + ", Time: " + (System.currentTimeMillis() - startTime));
-				    	System.out.println("Is sorted: " + userArray.isSorted());
-				    	i = i * 10;
-			    	}
+			    case 8: // Benchmark sorting algorithms
+			    	// A quick sweep like the original assignment loop. The full sweep takes much longer, so it is
+			    	// left to running SortBenchmark from the command line.
+			    	SortBenchmark.Options options = new SortBenchmark.Options();
+			    	options.algorithms = Arrays.asList("mergeSort", "quickSort", "heapSort");
+			    	options.distributions = Arrays.asList("uniform");
+			    	options.sizes = new int[] {10, 100, 1000, 10000, 100000, 1000000};
+			    	options.warmup = 1;
+			    	options.iterations = 3;
+			    	options.iterationMillis = 500;
+			    	SortBenchmark.run(options);
+			    	System.out.println("For every algorithm and distribution, run: java SortBenchmark");
 			    	break;
 			    case 7: // heapSort
 			    	startTime = System.currentTimeMillis();
@@ -303,6 +1019,171 @@ public class ArraySorting {
 		    		System.out.println("Time elapsed (ms): " + (System.currentTimeMillis() - startTime));
 		    		System.out.println("Is sorted: " + userArray.isSorted());
 		    		break;
+			    case 9: // parallelMergeSort
+			    	System.out.println("Please input the number of worker threads.");
+			    	int workers = scan.nextInt();
+			    	startTime = System.currentTimeMillis();
+		    		System.out.println("Original array: ");
+		    		userArray.printArray();
+		    		System.out.println("Sorting the array with parallelMergeSort...");
+		    		userArray.parallelMergeSort(workers);
+		    		System.out.println("Sorted array: ");
+		    		userArray.printArray();
+		    		System.out.println("Time elapsed (ms): " + (System.currentTimeMillis() - startTime));
+		    		System.out.println("Is sorted: " + userArray.isSorted());
+		    		break;
+			    case 10: // parallel scaling benchmark
+			    	System.out.println("Please input the array size for the scaling test.");
+			    	ParallelMergeSort.scalingBenchmark(scan.nextInt());
+			    	break;
+			    case 11: // bottomUpMergeSort
+			    	startTime = System.currentTimeMillis();
+		    		System.out.println("Original array: ");
+		    		userArray.printArray();
+		    		System.out.println("Sorting the array with bottomUpMergeSort...");
+		    		userArray.bottomUpMergeSort();
+		    		System.out.println("Sorted array: ");
+		    		userArray.printArray();
+		    		System.out.println("Time elapsed (ms): " + (System.currentTimeMillis() - startTime));
+		    		System.out.println("Is sorted: " + userArray.isSorted());
+		    		break;
+			    case 12: // allocation benchmark
+			    	System.out.println("Please input the array size for the allocation test.");
+			    	allocationBenchmark(scan.nextInt());
+			    	break;
+			    case 13: // introSort
+			    	startTime = System.currentTimeMillis();
+		    		System.out.println("Original array: ");
+		    		userArray.printArray();
+		    		System.out.println("Sorting the array with introSort...");
+		    		userArray.introSort();
+		    		System.out.println("Sorted array: ");
+		    		userArray.printArray();
+		    		System.out.println("Time elapsed (ms): " + (System.currentTimeMillis() - startTime));
+		    		System.out.println("Is sorted: " + userArray.isSorted());
+		    		break;
+			    case 14: // radixSort
+			    	startTime = System.currentTimeMillis();
+		    		System.out.println("Original array: ");
+		    		userArray.printArray();
+		    		System.out.println("Sorting the array with radixSort...");
+		    		userArray.radixSort();
+		    		System.out.println("Sorted array: ");
+		    		userArray.printArray();
+		    		System.out.println("Time elapsed (ms): " + (System.currentTimeMillis() - startTime));
+		    		System.out.println("Is sorted: " + userArray.isSorted());
+		    		break;
+			    case 15: // adaptiveSort
+			    	startTime = System.currentTimeMillis();
+		    		System.out.println("Original array: ");
+		    		userArray.printArray();
+		    		System.out.println("Sorting the array with adaptiveSort...");
+		    		userArray.adaptiveSort();
+		    		System.out.println("Sorted array: ");
+		    		userArray.printArray();
+		    		System.out.println("Time elapsed (ms): " + (System.currentTimeMillis() - startTime));
+		    		System.out.println("Is sorted: " + userArray.isSorted());
+		    		break;
+			    case 16: // select
+			    	System.out.println("Please input the rank (0 is the smallest) of the value to find.");
+			    	userInput = scan.nextInt();
+			    	startTime = System.currentTimeMillis();
+			    	System.out.println("Value of rank " + userInput + ": " + userArray.select(userInput));
+			    	System.out.println("Time elapsed (ms): " + (System.currentTimeMillis() - startTime));
+			    	break;
+			    case 17: // topK
+			    	System.out.println("Please input how many of the largest values to find.");
+			    	userInput = scan.nextInt();
+			    	startTime = System.currentTimeMillis();
+			    	int top[] = userArray.topK(userInput);
+			    	System.out.println("Time elapsed (ms): " + (System.currentTimeMillis() - startTime));
+			    	new ArraySorting(top).printArray();
+			    	break;
+			    case 18: // sort metrics
+			    	if (!SortMetrics.ENABLED) {
+			    		System.out.println("Sort metrics are off. Restart with -Dsort.metrics=true to collect them.");
+			    	}
+			    	else if (SortMetrics.last() == null) {
+			    		System.out.println("No sort has finished yet.");
+			    	}
+			    	else {
+			    		System.out.println(SortMetrics.last());
+			    	}
+			    	break;
+			    case 19: // daryHeapSort
+			    	System.out.println("Please input the number of children per node (2, 4 or 8).");
+			    	userInput = scan.nextInt();
+			    	startTime = System.currentTimeMillis();
+		    		System.out.println("Original array: ");
+		    		userArray.printArray();
+		    		System.out.println("Sorting the array with daryHeapSort...");
+		    		userArray.daryHeapSort(userInput);
+		    		System.out.println("Sorted array: ");
+		    		userArray.printArray();
+		    		System.out.println("Time elapsed (ms): " + (System.currentTimeMillis() - startTime));
+		    		System.out.println("Is sorted: " + userArray.isSorted());
+		    		break;
+			    case 20: // branchlessSort
+			    	startTime = System.currentTimeMillis();
+		    		System.out.println("Original array: ");
+		    		userArray.printArray();
+		    		System.out.println("Sorting the array with branchlessSort...");
+		    		userArray.branchlessSort();
+		    		System.out.println("Sorted array: ");
+		    		userArray.printArray();
+		    		System.out.println("Time elapsed (ms): " + (System.currentTimeMillis() - startTime));
+		    		System.out.println("Is sorted: " + userArray.isSorted());
+		    		break;
+			    case 21: // Off-heap sort
+			    	System.out.println("Please input the number of ints to sort off-heap.");
+			    	long length = scan.nextLong();
+			    	System.out.println("Please input the algorithm: [1] quickSort [2] mergeSort [3] heapSort [4] radixSort");
+			    	userInput = scan.nextInt();
+			    	OffHeapIntArray offHeap = OffHeapIntArray.allocate(length);
+			    	Random rand = new Random();
+			    	for (long i = 0; i < length; i++) {
+			    		offHeap.set(i, rand.nextInt());
+			    	}
+			    	SortVerifier.Fingerprint before = SortVerifier.scan(offHeap).fingerprint();
+			    	startTime = System.currentTimeMillis();
+			    	if (userInput == 1) {
+			    		OffHeapSorting.quickSort(offHeap);
+			    	}
+			    	else if (userInput == 2) {
+			    		OffHeapSorting.mergeSort(offHeap);
+			    	}
+			    	else if (userInput == 3) {
+			    		OffHeapSorting.heapSort(offHeap);
+			    	}
+			    	else {
+			    		OffHeapSorting.radixSort(offHeap);
+			    	}
+			    	System.out.println("Time elapsed (ms): " + (System.currentTimeMillis() - startTime));
+			    	try {
+			    		SortVerifier.verify(offHeap, before);
+			    		System.out.println("Verified: sorted, with the same values as before.");
+			    	}
+			    	catch (IllegalStateException e) {
+			    		System.out.println(e.getMessage());
+			    	}
+			    	break;
+			    case 22: // Incremental sort in batches
+			    	System.out.println("Please input the batch size.");
+			    	userInput = scan.nextInt();
+			    	if (userInput < 1) {
+			    		System.out.println("Error: batch size must be at least 1.");
+			    		break;
+			    	}
+			    	startTime = System.currentTimeMillis();
+			    	IncrementalSorter incremental = new IncrementalSorter();
+			    	for (int low = 0; low < userArray.array.length; low += userInput) {
+			    		incremental.add(userArray.array, low, Math.min(low + userInput, userArray.array.length));
+			    	}
+			    	System.out.println("Time elapsed (ms): " + (System.currentTimeMillis() - startTime));
+			    	System.out.println("Runs: " + incremental.runCount());
+			    	System.out.println("Is sorted: " + incremental.isSorted());
+			    	new ArraySorting(incremental.toArray()).printArray();
+			    	break;
 			    } // end of switch
 		  } // end of while
 		scan.close();
@@ -0,0 +1,248 @@
+/**
+ * BranchlessSort.java is an introsort for int arrays whose inner loops avoid unpredictable branches.
+ * On random data about half of the comparisons in a normal partition go each way, so the CPU mispredicts
+ * them constantly. This sort uses two tricks to keep comparison results out of the branch predictor:
+ *
+ * Block partitioning (Edelkamp and Weiss' BlockQuicksort). A block of elements on each side is scanned and the
+ * offsets of misplaced elements are recorded with an add instead of a branch, then the recorded pairs are swapped.
+ * Sorting networks. Sections of up to NETWORK_MAX elements are sorted by a fixed Batcher odd-even merge network
+ * of min/max steps, which the JIT compiles to conditional moves.
+ *
+ * When a pivot repeats the value of an earlier pivot, all its copies are split off in one pass.
+ * Sections that recurse too deeply are finished with DaryHeapSort, so the worst case is O(n log n).
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BranchlessSort {
+
+	// Number of elements scanned at a time on each side of a block partition.
+	private static final int BLOCK = 64;
+
+	// Sections at or below this size are sorted with a sorting network.
+	private static final int NETWORK_MAX = 16;
+
+	// Sections at or above this size use a ninther pivot.
+	private static final int NINTHER_THRESHOLD = 128;
+
+	// NETWORKS[n] holds the comparator pairs for n elements, flattened as {i0, j0, i1, j1 ...}.
+	private static final int[][] NETWORKS = new int[NETWORK_MAX + 1][];
+
+	static {
+		for (int n = 0; n <= NETWORK_MAX; n++) {
+			NETWORKS[n] = oddEvenMergeNetwork(n);
+		}
+	}
+
+	/**
+	 * sort sorts the array.
+	 * @param array This is the array to sort.
+	 */
+	public static void sort(int[] array) {
+		sort(array, 0, array.length);
+	}
+
+	/**
+	 * sort sorts array[low, high).
+	 * @param array This is the array to sort.
+	 * @param low This is the first index of the section, inclusive.
+	 * @param high This is the last index of the section, exclusive.
+	 */
+	public static void sort(int[] array, int low, int high) {
+		if (low < 0 || high > array.length || low > high) {
+			throw new IllegalArgumentException("Error: invalid range " + low + " to " + high + ".");
+		}
+		int n = high - low;
+		if (n < 2) {
+			return;
+		}
+		int[] offsetsLeft = new int[BLOCK];
+		int[] offsetsRight = new int[BLOCK];
+		sort(array, low, high, 2 * (31 - Integer.numberOfLeadingZeros(n)), true, offsetsLeft, offsetsRight);
+	}
+
+	/**
+	 * sort is the introsort loop. It partitions, recurses on the smaller side and loops on the larger one.
+	 * When a section isn't leftmost, the value just before it is a pivot no larger than anything in it. If the new
+	 * pivot equals that value, every copy of it is split off at once, so runs of equal keys cost one pass.
+	 */
+	private static void sort(int[] array, int low, int high, int depthLimit, boolean leftmost, int[] offsetsLeft,
+			int[] offsetsRight) {
+		while (high - low > NETWORK_MAX) {
+			if (depthLimit-- == 0) {
+				DaryHeapSort.sort(array, low, high, 8);
+				return;
+			}
+			swap(array, low, choosePivot(array, low, high - 1));
+			if (!leftmost && array[low - 1] == array[low]) {
+				low = partitionEqual(array, low, high, array[low]);
+				continue;
+			}
+			int mid = blockPartition(array, low, high, offsetsLeft, offsetsRight);
+			if (mid - low < high - mid) {
+				sort(array, low, mid, depthLimit, leftmost, offsetsLeft, offsetsRight);
+				low = mid + 1;
+				leftmost = false;
+			}
+			else {
+				sort(array, mid + 1, high, depthLimit, false, offsetsLeft, offsetsRight);
+				high = mid;
+			}
+		}
+		network(array, low, high - low);
+	}
+
+	/**
+	 * partitionEqual moves every value at most the pivot to the front of array[low, high) with a branch free
+	 * Lomuto loop. It is only called when nothing in the section is below the pivot, so those are all pivot copies.
+	 * @return int The index of the first value above the pivot.
+	 */
+	private static int partitionEqual(int[] array, int low, int high, int pivot) {
+		int k = low;
+		for (int i = low; i < high; i++) {
+			int value = array[i];
+			array[i] = array[k];
+			array[k] = value;
+			k += value <= pivot ? 1 : 0;
+		}
+		return k;
+	}
+
+	/**
+	 * blockPartition partitions array[low, high) around the pivot at array[low].
+	 * @return int The final index of the pivot. Everything before it is at most the pivot and everything after it at least.
+	 */
+	private static int blockPartition(int[] array, int low, int high, int[] offsetsLeft, int[] offsetsRight) {
+		int pivot = array[low];
+
+		// [low + 1, l) holds values <= pivot, (r, high) holds values >= pivot, and [l, r] is unpartitioned.
+		int l = low + 1;
+		int r = high - 1;
+		int countLeft = 0;
+		int countRight = 0;
+		int startLeft = 0;
+		int startRight = 0;
+		while (r - l + 1 > 2 * BLOCK) {
+			if (countLeft == 0) {
+				startLeft = 0;
+				for (int i = 0; i < BLOCK; i++) {
+					offsetsLeft[countLeft] = i;
+					countLeft += array[l + i] >= pivot ? 1 : 0;
+				}
+			}
+			if (countRight == 0) {
+				startRight = 0;
+				for (int i = 0; i < BLOCK; i++) {
+					offsetsRight[countRight] = i;
+					countRight += pivot >= array[r - i] ? 1 : 0;
+				}
+			}
+			int count = Math.min(countLeft, countRight);
+			for (int k = 0; k < count; k++) {
+				swap(array, l + offsetsLeft[startLeft + k], r - offsetsRight[startRight + k]);
+			}
+			countLeft -= count;
+			countRight -= count;
+			startLeft += count;
+			startRight += count;
+			if (countLeft == 0) {
+				l += BLOCK;
+			}
+			if (countRight == 0) {
+				r -= BLOCK;
+			}
+		}
+
+		// Finish the last few blocks with a Hoare partition. Any offsets still recorded just get found again.
+		int i = l - 1;
+		int j = r + 1;
+		while (true) {
+			do {
+				i++;
+			} while (i < high && array[i] < pivot);
+			do {
+				j--;
+			} while (array[j] > pivot);
+			if (i >= j) {
+				break;
+			}
+			swap(array, i, j);
+		}
+		swap(array, low, j);
+		return j;
+	}
+
+	/**
+	 * network sorts array[low, low + n) with the sorting network for n elements.
+	 */
+	private static void network(int[] array, int low, int n) {
+		int[] pairs = NETWORKS[n];
+		for (int k = 0; k < pairs.length; k += 2) {
+			int x = low + pairs[k];
+			int y = low + pairs[k + 1];
+			int a = array[x];
+			int b = array[y];
+			array[x] = Math.min(a, b);
+			array[y] = Math.max(a, b);
+		}
+	}
+
+	/**
+	 * oddEvenMergeNetwork builds Batcher's odd-even merge sort network for n elements.
+	 * @param n This is the number of elements.
+	 * @return int[] The comparator pairs, flattened.
+	 */
+	private static int[] oddEvenMergeNetwork(int n) {
+		List<Integer> pairs = new ArrayList<Integer>();
+		for (int p = 1; p < n; p *= 2) {
+			for (int k = p; k >= 1; k /= 2) {
+				for (int j = k % p; j + k < n; j += 2 * k) {
+					for (int i = 0; i < k && i + j + k < n; i++) {
+						if ((i + j) / (2 * p) == (i + j + k) / (2 * p)) {
+							pairs.add(i + j);
+							pairs.add(i + j + k);
+						}
+					}
+				}
+			}
+		}
+		int[] result = new int[pairs.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = pairs.get(i);
+		}
+		return result;
+	}
+
+	private static int choosePivot(int[] array, int low, int high) {
+		int mid = (low + high) >>> 1;
+		if (high - low + 1 < NINTHER_THRESHOLD) {
+			return medianOfThree(array, low, mid, high);
+		}
+		int step = (high - low + 1) / 8;
+		int a = medianOfThree(array, low, low + step, low + 2 * step);
+		int b = medianOfThree(array, mid - step, mid, mid + step);
+		int c = medianOfThree(array, high - 2 * step, high - step, high);
+		return medianOfThree(array, a, b, c);
+	}
+
+	private static int medianOfThree(int[] array, int a, int b, int c) {
+		int x = array[a];
+		int y = array[b];
+		int z = array[c];
+		if (x < y) {
+			return y < z ? b : (x < z ? c : a);
+		}
+		return x < z ? a : (y < z ? c : b);
+	}
+
+	private static void swap(int[] array, int x, int y) {
+		int temp = array[x];
+		array[x] = array[y];
+		array[y] = temp;
+	}
+}
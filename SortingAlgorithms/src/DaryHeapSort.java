@@ -0,0 +1,206 @@
+/**
+ * DaryHeapSort.java is a cache friendly heap sort for int arrays.
+ * The heap can have 2, 4 or 8 children per node. Wider nodes make the heap shallower, and the children of a
+ * node sit next to each other, so one or two cache lines hold all of them.
+ * Sifting moves a hole instead of swapping, so each level costs one write instead of three.
+ * Removing the max uses Floyd's bottom-up sift: the hole descends along the largest children to a leaf
+ * without comparing against the sifted value, and the value then climbs back up the few levels it needs.
+ * The value taken from the end of the heap is nearly always small, so this saves about one comparison per level.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+public class DaryHeapSort {
+
+	/**
+	 * sort sorts the array with an 8-ary heap, the fastest layout on large arrays.
+	 * @param array This is the array to sort.
+	 */
+	public static void sort(int[] array) {
+		sort(array, 0, array.length, 8);
+	}
+
+	/**
+	 * sort sorts the array with a heap of the given arity.
+	 * @param array This is the array to sort.
+	 * @param arity This is the number of children per node: 2, 4 or 8.
+	 */
+	public static void sort(int[] array, int arity) {
+		sort(array, 0, array.length, arity);
+	}
+
+	/**
+	 * sort sorts array[low, high) with a heap of the given arity.
+	 * @param array This is the array to sort.
+	 * @param low This is the first index of the section, inclusive.
+	 * @param high This is the last index of the section, exclusive.
+	 * @param arity This is the number of children per node: 2, 4 or 8.
+	 */
+	public static void sort(int[] array, int low, int high, int arity) {
+		if (arity != 2 && arity != 4 && arity != 8) {
+			throw new IllegalArgumentException("Error: arity must be 2, 4 or 8.");
+		}
+		if (low < 0 || high > array.length || low > high) {
+			throw new IllegalArgumentException("Error: invalid range " + low + " to " + high + ".");
+		}
+		int size = high - low;
+		if (size < 2) {
+			return;
+		}
+		int shift = Integer.numberOfTrailingZeros(arity);
+
+		// Build the heap bottom up, starting from the last node that has a child.
+		for (int parent = (size - 2) >> shift; parent >= 0; parent--) {
+			if (shift == 1) {
+				siftDownBinary(array, low, parent, array[low + parent], size);
+			}
+			else {
+				siftDown(array, low, parent, array[low + parent], size, shift);
+			}
+		}
+
+		// Repeatedly move the max to the end and refill the root from the last leaf.
+		for (int end = size - 1; end > 0; end--) {
+			int value = array[low + end];
+			array[low + end] = array[low];
+			if (shift == 1) {
+				bottomUpSiftBinary(array, low, value, end);
+			}
+			else {
+				bottomUpSift(array, low, value, end, shift);
+			}
+		}
+	}
+
+	/**
+	 * siftDownBinary is siftDown for a binary heap. Picking the larger child with a plain branch lets the CPU
+	 * start loading the next level before the comparison resolves. The loop over children in siftDown is
+	 * compiled to conditional moves, which wait for each load and make a binary heap about twice as slow.
+	 */
+	private static void siftDownBinary(int[] array, int offset, int hole, int value, int size) {
+		// Stop before 2 * hole + 1 could overflow on arrays of more than 2^30 values.
+		int lastParent = (size - 2) >> 1;
+		while (hole <= lastParent) {
+			int child = 2 * hole + 1;
+			if (child + 1 < size && array[offset + child + 1] > array[offset + child]) {
+				child++;
+			}
+			int max = array[offset + child];
+			if (max <= value) {
+				break;
+			}
+			array[offset + hole] = max;
+			hole = child;
+		}
+		array[offset + hole] = value;
+	}
+
+	/**
+	 * bottomUpSiftBinary is bottomUpSift for a binary heap, with the same plain branch as siftDownBinary.
+	 */
+	private static void bottomUpSiftBinary(int[] array, int offset, int value, int size) {
+		int hole = 0;
+		// The last node with two children. Comparing hole with it keeps 2 * hole + 2 from overflowing.
+		int lastFull = (size - 3) >> 1;
+		while (hole <= lastFull) {
+			int child = 2 * hole + 2;
+			if (array[offset + child - 1] > array[offset + child]) {
+				child--;
+			}
+			array[offset + hole] = array[offset + child];
+			hole = child;
+		}
+		if ((size & 1) == 0 && hole == (size - 2) >> 1) {
+			// The last node has only a left child.
+			array[offset + hole] = array[offset + size - 1];
+			hole = size - 1;
+		}
+		while (hole > 0) {
+			int parent = (hole - 1) >> 1;
+			int v = array[offset + parent];
+			if (v >= value) {
+				break;
+			}
+			array[offset + hole] = v;
+			hole = parent;
+		}
+		array[offset + hole] = value;
+	}
+
+	/**
+	 * siftDown places a value into the hole at parent, moving larger children up until the value fits.
+	 * @param array This is the array holding the heap.
+	 * @param offset This is the index of the root of the heap.
+	 * @param hole This is the node that is empty.
+	 * @param value This is the value to place.
+	 * @param size This is the number of nodes in the heap.
+	 * @param shift This is log2 of the arity.
+	 */
+	private static void siftDown(int[] array, int offset, int hole, int value, int size, int shift) {
+		int arity = 1 << shift;
+		// Stop before hole << shift could overflow on arrays of 2^(31 - shift) values or more.
+		int lastParent = (size - 2) >> shift;
+		while (hole <= lastParent) {
+			int first = (hole << shift) + 1;
+			int last = size - first > arity ? first + arity : size;
+			int child = first;
+			int max = array[offset + first];
+			for (int c = first + 1; c < last; c++) {
+				int v = array[offset + c];
+				if (v > max) {
+					max = v;
+					child = c;
+				}
+			}
+			if (max <= value) {
+				break;
+			}
+			array[offset + hole] = max;
+			hole = child;
+		}
+		array[offset + hole] = value;
+	}
+
+	/**
+	 * bottomUpSift places a value into the hole at the root with Floyd's method. The hole first follows the
+	 * largest children down to a leaf, then the value moves back up until its parent is at least as large.
+	 * @param array This is the array holding the heap.
+	 * @param offset This is the index of the root of the heap.
+	 * @param value This is the value to place.
+	 * @param size This is the number of nodes in the heap.
+	 * @param shift This is log2 of the arity.
+	 */
+	private static void bottomUpSift(int[] array, int offset, int value, int size, int shift) {
+		int arity = 1 << shift;
+		int hole = 0;
+		// Stop before hole << shift could overflow on arrays of 2^(31 - shift) values or more.
+		int lastParent = (size - 2) >> shift;
+		while (hole <= lastParent) {
+			int first = (hole << shift) + 1;
+			int last = size - first > arity ? first + arity : size;
+			int child = first;
+			int max = array[offset + first];
+			for (int c = first + 1; c < last; c++) {
+				int v = array[offset + c];
+				if (v > max) {
+					max = v;
+					child = c;
+				}
+			}
+			array[offset + hole] = max;
+			hole = child;
+		}
+		while (hole > 0) {
+			int parent = (hole - 1) >> shift;
+			int v = array[offset + parent];
+			if (v >= value) {
+				break;
+			}
+			array[offset + hole] = v;
+			hole = parent;
+		}
+		array[offset + hole] = value;
+	}
+}
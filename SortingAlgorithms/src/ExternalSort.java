@@ -0,0 +1,453 @@
+/**
+ * ExternalSort.java sorts binary files of ints that are larger than the heap.
+ * The input is read through memory mapped chunks that fit the memory budget, each chunk is sorted in memory,
+ * and the sorted runs are spilled to temporary files. The runs are then k-way merged with a priority queue,
+ * at most fanIn runs at a time, using large sequential buffers.
+ * Files hold big-endian 4 byte ints, the same layout DataOutputStream.writeInt produces.
+ * When verification is on, the input is fingerprinted as it is read and the output as it is written, and the sort
+ * fails if the output is out of order or doesn't hold exactly the input's values. This costs no extra I/O.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+public class ExternalSort {
+
+	// Largest I/O buffer used for a single run reader or writer.
+	private static final int MAX_BUFFER_BYTES = 1 << 22;
+
+	// Smallest I/O buffer used for a single run reader or writer.
+	private static final int MIN_BUFFER_BYTES = 1 << 16;
+
+	private final long memoryBudget;
+	private final int fanIn;
+	private final Path tempDirectory;
+	private final boolean verify;
+
+	/**
+	 * ExternalSort(memoryBudget, fanIn) creates a sorter that spills runs to the default temporary directory.
+	 * @param memoryBudget This is the number of bytes the sort may use for chunks and buffers.
+	 * @param fanIn This is the largest number of runs merged at once.
+	 */
+	public ExternalSort(long memoryBudget, int fanIn) {
+		this(memoryBudget, fanIn, null);
+	}
+
+	/**
+	 * ExternalSort(memoryBudget, fanIn, tempDirectory) creates a sorter that spills runs to the given directory.
+	 * @param memoryBudget This is the number of bytes the sort may use for chunks and buffers.
+	 * @param fanIn This is the largest number of runs merged at once.
+	 * @param tempDirectory This is the directory for run files, or null for the default temporary directory.
+	 */
+	public ExternalSort(long memoryBudget, int fanIn, Path tempDirectory) {
+		this(memoryBudget, fanIn, tempDirectory, true);
+	}
+	
+	/**
+	 * ExternalSort(memoryBudget, fanIn, tempDirectory, verify) creates a sorter that can skip verification.
+	 * @param memoryBudget This is the number of bytes the sort may use for chunks and buffers.
+	 * @param fanIn This is the largest number of runs merged at once.
+	 * @param tempDirectory This is the directory for run files, or null for the default temporary directory.
+	 * @param verify This is whether to check the output against a fingerprint of the input.
+	 */
+	public ExternalSort(long memoryBudget, int fanIn, Path tempDirectory, boolean verify) {
+		if (memoryBudget < 1 << 20) {
+			throw new IllegalArgumentException("Error: memory budget must be at least 1 MB.");
+		}
+		if (fanIn < 2) {
+			throw new IllegalArgumentException("Error: fan-in must be at least 2.");
+		}
+		this.memoryBudget = memoryBudget;
+		this.fanIn = fanIn;
+		this.tempDirectory = tempDirectory;
+		this.verify = verify;
+	}
+
+	/**
+	 * Result holds the statistics of a finished sort.
+	 */
+	public static class Result {
+		public final long bytes;
+		public final int runs;
+		public final int mergePasses;
+		public final long runNanos;
+		public final long mergeNanos;
+
+		Result(long bytes, int runs, int mergePasses, long runNanos, long mergeNanos) {
+			this.bytes = bytes;
+			this.runs = runs;
+			this.mergePasses = mergePasses;
+			this.runNanos = runNanos;
+			this.mergeNanos = mergeNanos;
+		}
+
+		/**
+		 * throughput returns the overall sort rate in megabytes of input per second.
+		 * @return double The throughput in MB/s.
+		 */
+		public double throughput() {
+			return megabytesPerSecond(runNanos + mergeNanos);
+		}
+
+		private double megabytesPerSecond(long nanos) {
+			return nanos == 0 ? 0 : (bytes / 1e6) / (nanos / 1e9);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Sorted %d MB in %d runs and %d merge passes. Run phase: %.1f MB/s, merge phase: %.1f MB/s, overall: %.1f MB/s",
+					bytes / 1000000, runs, mergePasses, megabytesPerSecond(runNanos), megabytesPerSecond(mergeNanos), throughput());
+		}
+	}
+
+	/**
+	 * sort sorts the ints in the input file and writes them to the output file.
+	 * @param input This is the file of unsorted ints.
+	 * @param output This is the file that the sorted ints are written to.
+	 * @return Result The statistics of the sort.
+	 * @throws IOException Error when a file can't be read or written, the input isn't a whole number of ints,
+	 * or verification finds the output doesn't match the input.
+	 */
+	public Result sort(Path input, Path output) throws IOException {
+		Path directory = tempDirectory == null ? Files.createTempDirectory("extsort") : Files.createTempDirectory(tempDirectory, "extsort");
+		List<Path> runs = new ArrayList<Path>();
+		try {
+			long startTime = System.nanoTime();
+			SortVerifier.Accumulator in = verify ? new SortVerifier.Accumulator() : null;
+			SortVerifier.Accumulator out = verify ? new SortVerifier.Accumulator() : null;
+			long bytes = createRuns(input, directory, runs, in, out);
+			long runNanos = System.nanoTime() - startTime;
+
+			startTime = System.nanoTime();
+			int passes = 0;
+			int runCount = runs.size();
+			while (runs.size() > fanIn) {
+				runs = mergePass(runs, directory);
+				passes++;
+			}
+			if (runs.size() == 1) {
+				Files.move(runs.get(0), output, StandardCopyOption.REPLACE_EXISTING);
+			}
+			else {
+				mergeRuns(runs, output, out);
+				passes++;
+			}
+			if (verify) {
+				try {
+					SortVerifier.verify(out, in.fingerprint());
+				}
+				catch (IllegalStateException e) {
+					throw new IOException(e.getMessage(), e);
+				}
+			}
+			return new Result(bytes, runCount, passes, runNanos, System.nanoTime() - startTime);
+		}
+		finally {
+			// Remove every run file, including any left behind by a merge that failed part way.
+			try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory)) {
+				for (Path run : leftovers) {
+					Files.deleteIfExists(run);
+				}
+			}
+			Files.deleteIfExists(directory);
+		}
+	}
+
+	/**
+	 * createRuns maps the input one chunk at a time, sorts each chunk and writes it to its own run file.
+	 * @param input This is the file of unsorted ints.
+	 * @param directory This is the directory for run files.
+	 * @param runs This is the list that the run files are added to.
+	 * @param in This is the accumulator for the input values, or null when not verifying.
+	 * @param out This is the accumulator for the output values, or null when not verifying.
+	 * It is only fed here when the whole input fits in one run, which becomes the output.
+	 * @return long The size of the input in bytes.
+	 * @throws IOException Error when a file can't be read or written.
+	 */
+	private long createRuns(Path input, Path directory, List<Path> runs, SortVerifier.Accumulator in,
+			SortVerifier.Accumulator out) throws IOException {
+		try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size % Integer.BYTES != 0) {
+				throw new IOException("Error: input size " + size + " is not a whole number of ints.");
+			}
+			int bufferBytes = bufferBytes(1);
+			// The chunk and its radix sort scratch array share what is left after the write buffer.
+			long chunkInts = Math.min((memoryBudget - bufferBytes) / (2 * Integer.BYTES), Integer.MAX_VALUE - 8);
+			int[] chunk = new int[(int) Math.min(chunkInts, size / Integer.BYTES)];
+			int[] scratch = new int[chunk.length];
+			long position = 0;
+			while (position < size) {
+				int count = (int) Math.min(chunk.length, (size - position) / Integer.BYTES);
+				MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) count * Integer.BYTES);
+				mapped.asIntBuffer().get(chunk, 0, count);
+				position += (long) count * Integer.BYTES;
+				if (in != null) {
+					for (int i = 0; i < count; i++) {
+						in.accept(chunk[i]);
+					}
+				}
+
+				if (count == chunk.length) {
+					RadixSort.sort(chunk, scratch, Runtime.getRuntime().availableProcessors());
+				}
+				else {
+					// The final chunk is partial, so sort just its prefix in place.
+					new ArraySorting(chunk).introSort(0, count-1);
+				}
+				if (out != null && runs.isEmpty() && position == size) {
+					for (int i = 0; i < count; i++) {
+						out.accept(chunk[i]);
+					}
+				}
+
+				Path run = Files.createTempFile(directory, "run", ".bin");
+				runs.add(run);
+				try (IntWriter writer = new IntWriter(run, bufferBytes)) {
+					writer.write(chunk, 0, count);
+				}
+			}
+			return size;
+		}
+	}
+
+	/**
+	 * mergePass merges the runs in groups of fanIn, producing fewer and longer runs.
+	 * @param runs This is the list of runs to merge. The files are deleted once merged.
+	 * @param directory This is the directory for run files.
+	 * @return List The merged runs.
+	 * @throws IOException Error when a file can't be read or written.
+	 */
+	private List<Path> mergePass(List<Path> runs, Path directory) throws IOException {
+		List<Path> merged = new ArrayList<Path>();
+		for (int i = 0; i < runs.size(); i += fanIn) {
+			List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+			Path run = Files.createTempFile(directory, "run", ".bin");
+			merged.add(run);
+			mergeRuns(group, run, null);
+			for (Path done : group) {
+				Files.delete(done);
+			}
+		}
+		return merged;
+	}
+
+	/**
+	 * mergeRuns k-way merges sorted run files into one output file using a priority queue of readers.
+	 * @param runs This is the list of sorted runs.
+	 * @param output This is the file that the merged ints are written to.
+	 * @param out This is the accumulator for the merged values, or null when not verifying.
+	 * @throws IOException Error when a file can't be read or written.
+	 */
+	private void mergeRuns(List<Path> runs, Path output, SortVerifier.Accumulator out) throws IOException {
+		int bufferBytes = bufferBytes(runs.size() + 1);
+		PriorityQueue<IntReader> queue = new PriorityQueue<IntReader>(Math.max(1, runs.size()));
+		try (IntWriter writer = new IntWriter(output, bufferBytes)) {
+			for (Path run : runs) {
+				IntReader reader = new IntReader(run, bufferBytes);
+				if (reader.hasNext()) {
+					queue.add(reader);
+				}
+				else {
+					reader.close();
+				}
+			}
+			while (!queue.isEmpty()) {
+				IntReader reader = queue.poll();
+				int value = reader.next();
+				writer.write(value);
+				if (out != null) {
+					out.accept(value);
+				}
+				if (reader.hasNext()) {
+					queue.add(reader);
+				}
+				else {
+					reader.close();
+				}
+			}
+		}
+		finally {
+			for (IntReader reader : queue) {
+				reader.close();
+			}
+		}
+	}
+
+	/**
+	 * bufferBytes splits the memory budget between the given number of open readers and writers.
+	 * @param streams This is the number of buffers needed at once.
+	 * @return int The size of each buffer in bytes, a multiple of 4.
+	 */
+	private int bufferBytes(int streams) {
+		long share = memoryBudget / 4 / streams;
+		return (int) Math.max(MIN_BUFFER_BYTES, Math.min(MAX_BUFFER_BYTES, share)) & ~(Integer.BYTES - 1);
+	}
+
+	/**
+	 * IntReader reads the ints of a file sequentially through a large direct buffer.
+	 * Readers are ordered by their next value so that they can sit in the merge queue.
+	 */
+	private static class IntReader implements Closeable, Comparable<IntReader> {
+		private final FileChannel channel;
+		private final ByteBuffer buffer;
+		private boolean hasNext;
+		private int next;
+
+		IntReader(Path path, int bufferBytes) throws IOException {
+			this.channel = FileChannel.open(path, StandardOpenOption.READ);
+			this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+			this.buffer.flip();
+			advance();
+		}
+
+		boolean hasNext() {
+			return hasNext;
+		}
+
+		int next() throws IOException {
+			int value = next;
+			advance();
+			return value;
+		}
+
+		private void advance() throws IOException {
+			if (buffer.remaining() < Integer.BYTES) {
+				buffer.compact();
+				while (buffer.position() < Integer.BYTES && channel.read(buffer) >= 0) {
+					// Keep reading until at least one whole int is buffered or the file ends.
+				}
+				buffer.flip();
+			}
+			hasNext = buffer.remaining() >= Integer.BYTES;
+			if (hasNext) {
+				next = buffer.getInt();
+			}
+		}
+
+		@Override
+		public int compareTo(IntReader other) {
+			return Integer.compare(next, other.next);
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+
+	/**
+	 * IntWriter writes ints to a file sequentially through a large direct buffer.
+	 */
+	private static class IntWriter implements Closeable {
+		private final FileChannel channel;
+		private final ByteBuffer buffer;
+		private final IntBuffer ints;
+
+		IntWriter(Path path, int bufferBytes) throws IOException {
+			this.channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+			this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+			this.ints = buffer.asIntBuffer();
+		}
+
+		void write(int value) throws IOException {
+			if (!ints.hasRemaining()) {
+				flush();
+			}
+			ints.put(value);
+		}
+
+		void write(int[] values, int offset, int count) throws IOException {
+			while (count > 0) {
+				if (!ints.hasRemaining()) {
+					flush();
+				}
+				int length = Math.min(count, ints.remaining());
+				ints.put(values, offset, length);
+				offset += length;
+				count -= length;
+			}
+		}
+
+		private void flush() throws IOException {
+			buffer.position(0).limit(ints.position() * Integer.BYTES);
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+			ints.clear();
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				flush();
+			}
+			finally {
+				channel.close();
+			}
+		}
+	}
+
+	/**
+	 * generate writes a file of random ints for testing the sort.
+	 * @param path This is the file to write.
+	 * @param count This is the number of ints to write.
+	 * @throws IOException Error when the file can't be written.
+	 */
+	public static void generate(Path path, long count) throws IOException {
+		Random rand = new Random();
+		int[] block = new int[1 << 16];
+		try (IntWriter writer = new IntWriter(path, MAX_BUFFER_BYTES)) {
+			while (count > 0) {
+				int length = (int) Math.min(block.length, count);
+				for (int i = 0; i < length; i++) {
+					block[i] = rand.nextInt();
+				}
+				writer.write(block, 0, length);
+				count -= length;
+			}
+		}
+	}
+
+	/**
+	 * Main sorts a file from the command line and prints the throughput.
+	 * Usage: ExternalSort input output [memoryMB] [fanIn] [verify], or ExternalSort generate file count.
+	 * @param args This is arguments from the command line.
+	 * @throws IOException Error when a file can't be read or written.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 3 && args[0].equals("generate")) {
+			generate(Paths.get(args[1]), Long.parseLong(args[2]));
+			return;
+		}
+		if (args.length < 2) {
+			System.out.println("Usage: ExternalSort input output [memoryMB] [fanIn] [verify]");
+			System.out.println("       ExternalSort generate file count");
+			return;
+		}
+		long memory = (args.length > 2 ? Long.parseLong(args[2]) : 256) << 20;
+		int fanIn = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+		boolean verify = args.length > 4 ? Boolean.parseBoolean(args[4]) : true;
+		ExternalSort sorter = new ExternalSort(memory, fanIn, null, verify);
+		System.out.println(sorter.sort(Paths.get(args[0]), Paths.get(args[1])));
+	}
+}
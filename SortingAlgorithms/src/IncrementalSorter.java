@@ -0,0 +1,269 @@
+/**
+ * IncrementalSorter.java keeps a growing collection of ints sorted as batches arrive, without re-sorting everything.
+ * Each batch is sorted on its own and kept as a sorted run. Runs are tiered like an LSM tree: whenever the newest
+ * run is at least half the size of the run before it, the two are merged. Run sizes therefore at least double
+ * from newest to oldest, there are O(log n) runs, and each value is merged O(log n) times, so adding a batch of
+ * b values costs O(b log n) amortized. Queries read all the runs and never force a merge.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+public class IncrementalSorter {
+
+	// A run is merged into the run before it once it is at least 1/RATIO of that run's size.
+	private static final int RATIO = 2;
+
+	// Sorted runs, oldest and largest first.
+	private final List<int[]> runs = new ArrayList<int[]>();
+	private long size;
+
+	/**
+	 * add sorts a batch and adds it as a new run, merging runs as needed. The batch is copied, not kept.
+	 * @param batch This is the batch of values.
+	 */
+	public void add(int[] batch) {
+		add(batch, 0, batch.length);
+	}
+
+	/**
+	 * add sorts batch[low, high) and adds it as a new run, merging runs as needed.
+	 * @param batch This is the array holding the batch.
+	 * @param low This is the first index of the batch, inclusive.
+	 * @param high This is the last index of the batch, exclusive.
+	 */
+	public void add(int[] batch, int low, int high) {
+		if (low < 0 || high > batch.length || low > high) {
+			throw new IllegalArgumentException("Error: invalid range " + low + " to " + high + ".");
+		}
+		if (low == high) {
+			return;
+		}
+		int[] run = new int[high - low];
+		System.arraycopy(batch, low, run, 0, run.length);
+		AdaptiveSort.sort(run);
+		this.runs.add(run);
+		this.size += run.length;
+		int last = this.runs.size() - 1;
+		while (last > 0 && (long) RATIO * this.runs.get(last).length >= this.runs.get(last - 1).length) {
+			this.runs.set(last - 1, merge(this.runs.get(last - 1), this.runs.remove(last)));
+			last--;
+		}
+	}
+
+	/**
+	 * compact merges every run into one, so later queries only search a single array.
+	 */
+	public void compact() {
+		while (this.runs.size() > 1) {
+			int last = this.runs.size() - 1;
+			this.runs.set(last - 1, merge(this.runs.get(last - 1), this.runs.remove(last)));
+		}
+	}
+
+	/**
+	 * size returns the number of values added so far.
+	 * @return long The number of values.
+	 */
+	public long size() {
+		return this.size;
+	}
+
+	/**
+	 * runCount returns the number of sorted runs currently kept.
+	 * @return int The number of runs.
+	 */
+	public int runCount() {
+		return this.runs.size();
+	}
+
+	/**
+	 * isSorted checks that every run is in ascending order, which is what keeps the sorted view correct.
+	 * @return boolean if every run is sorted
+	 */
+	public boolean isSorted() {
+		for (int[] run : this.runs) {
+			for (int i = 1; i < run.length; i++) {
+				if (run[i-1] > run[i]) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * rank returns how many values are smaller than the given value, with a binary search of each run.
+	 * @param value This is the value to rank.
+	 * @return long The number of smaller values.
+	 */
+	public long rank(int value) {
+		long rank = 0;
+		for (int[] run : this.runs) {
+			rank += lowerBound(run, value);
+		}
+		return rank;
+	}
+
+	/**
+	 * count returns how many times a value has been added.
+	 * @param value This is the value to count.
+	 * @return long The number of copies.
+	 */
+	public long count(int value) {
+		long count = 0;
+		for (int[] run : this.runs) {
+			count += upperBound(run, value) - lowerBound(run, value);
+		}
+		return count;
+	}
+
+	/**
+	 * select finds the kth smallest value (counting from 0) by binary searching the range of int values with rank.
+	 * It takes O(32 r log n) time for r runs and doesn't merge anything.
+	 * @param k This is the rank of the value to find.
+	 * @return int The kth smallest value.
+	 */
+	public int select(long k) {
+		if (k < 0 || k >= this.size) {
+			throw new IllegalArgumentException("Error: k must be between 0 and " + (this.size - 1) + ".");
+		}
+		// Find the largest value whose rank is at most k.
+		long low = Integer.MIN_VALUE;
+		long high = Integer.MAX_VALUE;
+		while (low < high) {
+			long mid = (low + high + 1) >> 1;
+			if (rank((int) mid) <= k) {
+				low = mid;
+			}
+			else {
+				high = mid - 1;
+			}
+		}
+		return (int) low;
+	}
+
+	/**
+	 * toArray returns every value in sorted order without changing the runs. The runs are merged into new arrays
+	 * from newest to oldest, and since run sizes at least double that way, the merges copy O(n) values in total.
+	 * @return int[] A sorted copy of the values.
+	 */
+	public int[] toArray() {
+		if (this.size > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Error: too many values for one array. Use iterator instead.");
+		}
+		if (this.runs.isEmpty()) {
+			return new int[0];
+		}
+		int last = this.runs.size() - 1;
+		if (last == 0) {
+			return this.runs.get(0).clone();
+		}
+		int[] merged = this.runs.get(last);
+		// merge always returns a new array, so the runs themselves are never written.
+		for (int r = last - 1; r >= 0; r--) {
+			merged = merge(this.runs.get(r), merged);
+		}
+		return merged;
+	}
+
+	/**
+	 * iterator returns the values in sorted order by merging the runs on the fly, without changing them.
+	 * The runs must not be changed by add or compact while iterating.
+	 * @return PrimitiveIterator.OfInt An iterator over the sorted values.
+	 */
+	public PrimitiveIterator.OfInt iterator() {
+		final int[][] sources = this.runs.toArray(new int[0][]);
+		final int[] positions = new int[sources.length];
+		return new PrimitiveIterator.OfInt() {
+			@Override
+			public boolean hasNext() {
+				for (int r = 0; r < sources.length; r++) {
+					if (positions[r] < sources[r].length) {
+						return true;
+					}
+				}
+				return false;
+			}
+
+			@Override
+			public int nextInt() {
+				// There are only O(log n) runs, so a linear scan for the smallest head is cheap.
+				int best = -1;
+				for (int r = 0; r < sources.length; r++) {
+					if (positions[r] < sources[r].length
+							&& (best < 0 || sources[r][positions[r]] < sources[best][positions[best]])) {
+						best = r;
+					}
+				}
+				if (best < 0) {
+					throw new NoSuchElementException();
+				}
+				return sources[best][positions[best]++];
+			}
+		};
+	}
+
+	/**
+	 * merge merges two sorted runs into a new array. Ties take from the older run, so the merge is stable.
+	 */
+	private static int[] merge(int[] older, int[] newer) {
+		int[] merged = new int[older.length + newer.length];
+		int i = 0;
+		int j = 0;
+		int k = 0;
+		while (i < older.length && j < newer.length) {
+			if (newer[j] < older[i]) {
+				merged[k++] = newer[j++];
+			}
+			else {
+				merged[k++] = older[i++];
+			}
+		}
+		System.arraycopy(older, i, merged, k, older.length - i);
+		System.arraycopy(newer, j, merged, k + older.length - i, newer.length - j);
+		return merged;
+	}
+
+	/**
+	 * lowerBound returns the index of the first value in the run that is at least the given value.
+	 */
+	private static int lowerBound(int[] run, int value) {
+		int low = 0;
+		int high = run.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (run[mid] < value) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * upperBound returns the index of the first value in the run that is greater than the given value.
+	 */
+	private static int upperBound(int[] run, int value) {
+		int low = 0;
+		int high = run.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (run[mid] <= value) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+}
@@ -0,0 +1,355 @@
+/**
+ * KeyValueSort.java sorts parallel primitive arrays of int keys and int or long values without boxing.
+ * Every move of a key moves its value too, so records can be sorted by key without wrapper objects.
+ * sortByKey is an in-place introsort and isn't stable. stableSortByKey is an LSD radix sort that keeps
+ * equal keys in their original order. argsort returns the sorted order as an array of indices.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.util.Arrays;
+
+public class KeyValueSort {
+
+	private static final int BITS = 8;
+	private static final int RADIX = 1 << BITS;
+	private static final int MASK = RADIX - 1;
+
+	// Sections at or below this size are insertion sorted.
+	private static final int INSERTION_CUTOFF = 24;
+
+	/**
+	 * argsort returns the indices that would sort the keys, without changing the keys.
+	 * The order is stable, so equal keys keep their original relative order.
+	 * @param keys This is the array of keys.
+	 * @return int[] The permutation, where keys[result[0]] is the smallest key.
+	 */
+	public static int[] argsort(int[] keys) {
+		int[] order = new int[keys.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		stableSortByKey(keys.clone(), order);
+		return order;
+	}
+
+	/**
+	 * stableSortByKey sorts the keys and moves each value with its key. Equal keys keep their original order.
+	 * @param keys This is the array of keys to sort.
+	 * @param values This is the array of values, the same length as the keys.
+	 */
+	public static void stableSortByKey(int[] keys, int[] values) {
+		checkLengths(keys.length, values.length);
+		int n = keys.length;
+		int[] count = new int[RADIX];
+		int[] srcKeys = keys;
+		int[] dstKeys = new int[n];
+		int[] srcValues = values;
+		int[] dstValues = new int[n];
+		for (int shift = 0; shift < Integer.SIZE; shift += BITS) {
+			if (!offsets(srcKeys, n, shift, count)) {
+				continue;
+			}
+			for (int i = 0; i < n; i++) {
+				int position = count[digit(srcKeys[i], shift)]++;
+				dstKeys[position] = srcKeys[i];
+				dstValues[position] = srcValues[i];
+			}
+			int[] tempKeys = srcKeys;
+			srcKeys = dstKeys;
+			dstKeys = tempKeys;
+			int[] tempValues = srcValues;
+			srcValues = dstValues;
+			dstValues = tempValues;
+		}
+		if (srcKeys != keys) {
+			System.arraycopy(srcKeys, 0, keys, 0, n);
+			System.arraycopy(srcValues, 0, values, 0, n);
+		}
+	}
+
+	/**
+	 * stableSortByKey sorts the keys and moves each value with its key. Equal keys keep their original order.
+	 * @param keys This is the array of keys to sort.
+	 * @param values This is the array of values, the same length as the keys.
+	 */
+	public static void stableSortByKey(int[] keys, long[] values) {
+		checkLengths(keys.length, values.length);
+		int n = keys.length;
+		int[] count = new int[RADIX];
+		int[] srcKeys = keys;
+		int[] dstKeys = new int[n];
+		long[] srcValues = values;
+		long[] dstValues = new long[n];
+		for (int shift = 0; shift < Integer.SIZE; shift += BITS) {
+			if (!offsets(srcKeys, n, shift, count)) {
+				continue;
+			}
+			for (int i = 0; i < n; i++) {
+				int position = count[digit(srcKeys[i], shift)]++;
+				dstKeys[position] = srcKeys[i];
+				dstValues[position] = srcValues[i];
+			}
+			int[] tempKeys = srcKeys;
+			srcKeys = dstKeys;
+			dstKeys = tempKeys;
+			long[] tempValues = srcValues;
+			srcValues = dstValues;
+			dstValues = tempValues;
+		}
+		if (srcKeys != keys) {
+			System.arraycopy(srcKeys, 0, keys, 0, n);
+			System.arraycopy(srcValues, 0, values, 0, n);
+		}
+	}
+
+	/**
+	 * sortByKey sorts the keys in place and moves each value with its key. It allocates nothing but isn't stable.
+	 * @param keys This is the array of keys to sort.
+	 * @param values This is the array of values, the same length as the keys.
+	 */
+	public static void sortByKey(int[] keys, int[] values) {
+		checkLengths(keys.length, values.length);
+		if (keys.length > 1) {
+			introSort(keys, values, 0, keys.length - 1, depthLimit(keys.length));
+		}
+	}
+
+	/**
+	 * sortByKey sorts the keys in place and moves each value with its key. It allocates nothing but isn't stable.
+	 * @param keys This is the array of keys to sort.
+	 * @param values This is the array of values, the same length as the keys.
+	 */
+	public static void sortByKey(int[] keys, long[] values) {
+		checkLengths(keys.length, values.length);
+		if (keys.length > 1) {
+			introSort(keys, values, 0, keys.length - 1, depthLimit(keys.length));
+		}
+	}
+
+	private static void checkLengths(int keys, int values) {
+		if (keys != values) {
+			throw new IllegalArgumentException("Error: " + keys + " keys but " + values + " values.");
+		}
+	}
+
+	private static int depthLimit(int n) {
+		return 2 * (31 - Integer.numberOfLeadingZeros(n));
+	}
+
+	/**
+	 * digit returns the given digit of a key with the sign bit flipped, so that unsigned digit order matches signed order.
+	 */
+	private static int digit(int key, int shift) {
+		return ((key ^ Integer.MIN_VALUE) >>> shift) & MASK;
+	}
+
+	/**
+	 * offsets counts one digit of the keys and turns the counts into starting offsets.
+	 * @return boolean False when every key has the same digit and the pass can be skipped.
+	 */
+	private static boolean offsets(int[] keys, int n, int shift, int[] count) {
+		Arrays.fill(count, 0);
+		for (int i = 0; i < n; i++) {
+			count[digit(keys[i], shift)]++;
+		}
+		int offset = 0;
+		for (int d = 0; d < RADIX; d++) {
+			if (count[d] == n) {
+				return false;
+			}
+			int c = count[d];
+			count[d] = offset;
+			offset += c;
+		}
+		return true;
+	}
+
+	/**
+	 * introSort is a Hoare partition quick sort with a median-of-three pivot that falls back to heap sort
+	 * past the depth limit and insertion sorts small sections. Values are swapped along with their keys.
+	 */
+	private static void introSort(int[] keys, int[] values, int low, int high, int depthLimit) {
+		while (high - low > INSERTION_CUTOFF) {
+			if (depthLimit-- == 0) {
+				heapSort(keys, values, low, high);
+				return;
+			}
+			// Hoare partitioning needs the pivot at the lower middle so that neither side comes back empty.
+			int mid = (low + high) >>> 1;
+			swap(keys, values, medianOfThree(keys, low, mid, high), mid);
+			int pivot = keys[mid];
+			int i = low - 1;
+			int j = high + 1;
+			while (true) {
+				do {
+					i++;
+				} while (keys[i] < pivot);
+				do {
+					j--;
+				} while (keys[j] > pivot);
+				if (i >= j) {
+					break;
+				}
+				swap(keys, values, i, j);
+			}
+			if (j - low < high - j) {
+				introSort(keys, values, low, j, depthLimit);
+				low = j + 1;
+			}
+			else {
+				introSort(keys, values, j + 1, high, depthLimit);
+				high = j;
+			}
+		}
+		for (int i = low + 1; i <= high; i++) {
+			int key = keys[i];
+			int value = values[i];
+			int j = i - 1;
+			while (j >= low && keys[j] > key) {
+				keys[j + 1] = keys[j];
+				values[j + 1] = values[j];
+				j--;
+			}
+			keys[j + 1] = key;
+			values[j + 1] = value;
+		}
+	}
+
+	/**
+	 * introSort is a Hoare partition quick sort with a median-of-three pivot that falls back to heap sort
+	 * past the depth limit and insertion sorts small sections. Values are swapped along with their keys.
+	 */
+	private static void introSort(int[] keys, long[] values, int low, int high, int depthLimit) {
+		while (high - low > INSERTION_CUTOFF) {
+			if (depthLimit-- == 0) {
+				heapSort(keys, values, low, high);
+				return;
+			}
+			// Hoare partitioning needs the pivot at the lower middle so that neither side comes back empty.
+			int mid = (low + high) >>> 1;
+			swap(keys, values, medianOfThree(keys, low, mid, high), mid);
+			int pivot = keys[mid];
+			int i = low - 1;
+			int j = high + 1;
+			while (true) {
+				do {
+					i++;
+				} while (keys[i] < pivot);
+				do {
+					j--;
+				} while (keys[j] > pivot);
+				if (i >= j) {
+					break;
+				}
+				swap(keys, values, i, j);
+			}
+			if (j - low < high - j) {
+				introSort(keys, values, low, j, depthLimit);
+				low = j + 1;
+			}
+			else {
+				introSort(keys, values, j + 1, high, depthLimit);
+				high = j;
+			}
+		}
+		for (int i = low + 1; i <= high; i++) {
+			int key = keys[i];
+			long value = values[i];
+			int j = i - 1;
+			while (j >= low && keys[j] > key) {
+				keys[j + 1] = keys[j];
+				values[j + 1] = values[j];
+				j--;
+			}
+			keys[j + 1] = key;
+			values[j + 1] = value;
+		}
+	}
+
+	private static int medianOfThree(int[] keys, int a, int b, int c) {
+		int x = keys[a];
+		int y = keys[b];
+		int z = keys[c];
+		if (x < y) {
+			return y < z ? b : (x < z ? c : a);
+		}
+		return x < z ? a : (y < z ? c : b);
+	}
+
+	private static void heapSort(int[] keys, int[] values, int low, int high) {
+		int size = high - low + 1;
+		for (int i = size / 2 - 1; i >= 0; i--) {
+			siftDown(keys, values, low, i, size);
+		}
+		for (int i = size - 1; i > 0; i--) {
+			swap(keys, values, low, low + i);
+			siftDown(keys, values, low, 0, i);
+		}
+	}
+
+	private static void heapSort(int[] keys, long[] values, int low, int high) {
+		int size = high - low + 1;
+		for (int i = size / 2 - 1; i >= 0; i--) {
+			siftDown(keys, values, low, i, size);
+		}
+		for (int i = size - 1; i > 0; i--) {
+			swap(keys, values, low, low + i);
+			siftDown(keys, values, low, 0, i);
+		}
+	}
+
+	private static void siftDown(int[] keys, int[] values, int offset, int parent, int size) {
+		while (true) {
+			int child = 2 * parent + 1;
+			if (child >= size) {
+				return;
+			}
+			if (child + 1 < size && keys[offset + child + 1] > keys[offset + child]) {
+				child++;
+			}
+			if (keys[offset + child] <= keys[offset + parent]) {
+				return;
+			}
+			swap(keys, values, offset + child, offset + parent);
+			parent = child;
+		}
+	}
+
+	private static void siftDown(int[] keys, long[] values, int offset, int parent, int size) {
+		while (true) {
+			int child = 2 * parent + 1;
+			if (child >= size) {
+				return;
+			}
+			if (child + 1 < size && keys[offset + child + 1] > keys[offset + child]) {
+				child++;
+			}
+			if (keys[offset + child] <= keys[offset + parent]) {
+				return;
+			}
+			swap(keys, values, offset + child, offset + parent);
+			parent = child;
+		}
+	}
+
+	private static void swap(int[] keys, int[] values, int x, int y) {
+		int key = keys[x];
+		keys[x] = keys[y];
+		keys[y] = key;
+		int value = values[x];
+		values[x] = values[y];
+		values[y] = value;
+	}
+
+	private static void swap(int[] keys, long[] values, int x, int y) {
+		int key = keys[x];
+		keys[x] = keys[y];
+		keys[y] = key;
+		long value = values[x];
+		values[x] = values[y];
+		values[y] = value;
+	}
+}
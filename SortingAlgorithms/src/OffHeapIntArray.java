@@ -0,0 +1,170 @@
+/**
+ * OffHeapIntArray.java is an array of ints stored outside the Java heap, in direct buffers or a memory mapped file.
+ * Indices are longs, so an array can hold more than Integer.MAX_VALUE ints. The ints are kept in chunks of
+ * CHUNK_INTS, each backed by its own buffer, because a single buffer can't be larger than 2 GB.
+ * The memory is released when the array is garbage collected. Direct allocations count against
+ * -XX:MaxDirectMemorySize, which defaults to the maximum heap size.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class OffHeapIntArray {
+
+	// Each chunk holds 2^CHUNK_SHIFT ints, or 1 GB.
+	private static final int CHUNK_SHIFT = 28;
+	private static final int CHUNK_INTS = 1 << CHUNK_SHIFT;
+	private static final long CHUNK_MASK = CHUNK_INTS - 1;
+
+	private final IntBuffer[] chunks;
+	private final long length;
+
+	private OffHeapIntArray(IntBuffer[] chunks, long length) {
+		this.chunks = chunks;
+		this.length = length;
+	}
+
+	/**
+	 * allocate creates a zeroed array in direct memory, stored in the platform's native byte order.
+	 * @param length This is the number of ints.
+	 * @return OffHeapIntArray The new array.
+	 */
+	public static OffHeapIntArray allocate(long length) {
+		if (length < 0) {
+			throw new IllegalArgumentException("Error: length must not be negative.");
+		}
+		IntBuffer[] chunks = new IntBuffer[chunkCount(length)];
+		for (int c = 0; c < chunks.length; c++) {
+			int ints = chunkLength(length, c);
+			chunks[c] = ByteBuffer.allocateDirect(ints * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+		}
+		return new OffHeapIntArray(chunks, length);
+	}
+
+	/**
+	 * map maps a file of big-endian ints, the layout ExternalSort uses, for reading and writing.
+	 * Changes are written back to the file by the operating system.
+	 * @param file This is the file to map. Its size must be a multiple of 4 bytes.
+	 * @return OffHeapIntArray The mapped array.
+	 * @throws IOException if the file can't be opened or mapped.
+	 */
+	public static OffHeapIntArray map(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			long size = channel.size();
+			if (size % Integer.BYTES != 0) {
+				throw new IOException("Error: " + file + " is not a whole number of ints.");
+			}
+			long length = size / Integer.BYTES;
+			IntBuffer[] chunks = new IntBuffer[chunkCount(length)];
+			for (int c = 0; c < chunks.length; c++) {
+				int ints = chunkLength(length, c);
+				long position = ((long) c << CHUNK_SHIFT) * Integer.BYTES;
+				MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) ints * Integer.BYTES);
+				chunks[c] = mapped.order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+			}
+			return new OffHeapIntArray(chunks, length);
+		}
+	}
+
+	/**
+	 * wrap views an existing direct IntBuffer, from its position to its limit, as an array without copying.
+	 * @param buffer This is the buffer. It must be direct.
+	 * @return OffHeapIntArray The array view of the buffer.
+	 */
+	public static OffHeapIntArray wrap(IntBuffer buffer) {
+		if (!buffer.isDirect()) {
+			throw new IllegalArgumentException("Error: buffer is not direct. Use an int[] for heap buffers.");
+		}
+		IntBuffer view = buffer.slice();
+		int length = view.remaining();
+		IntBuffer[] chunks = new IntBuffer[chunkCount(length)];
+		for (int c = 0; c < chunks.length; c++) {
+			int start = c << CHUNK_SHIFT;
+			view.limit(start + chunkLength(length, c)).position(start);
+			chunks[c] = view.slice();
+		}
+		return new OffHeapIntArray(chunks, length);
+	}
+
+	/**
+	 * length returns the number of ints in the array.
+	 * @return long The length.
+	 */
+	public long length() {
+		return this.length;
+	}
+
+	/**
+	 * get returns the int at an index.
+	 * @param index This is the index, from 0 to length - 1.
+	 * @return int The value.
+	 */
+	public int get(long index) {
+		return this.chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & CHUNK_MASK));
+	}
+
+	/**
+	 * set stores an int at an index.
+	 * @param index This is the index, from 0 to length - 1.
+	 * @param value This is the value to store.
+	 */
+	public void set(long index, int value) {
+		this.chunks[(int) (index >>> CHUNK_SHIFT)].put((int) (index & CHUNK_MASK), value);
+	}
+
+	/**
+	 * swap exchanges the ints at two indices.
+	 * @param x This is the first index.
+	 * @param y This is the second index.
+	 */
+	public void swap(long x, long y) {
+		int temp = get(x);
+		set(x, get(y));
+		set(y, temp);
+	}
+
+	/**
+	 * copy copies ints between two different off-heap arrays, like System.arraycopy. The ranges must not overlap.
+	 * @param src This is the array to copy from.
+	 * @param srcIndex This is the first index to copy from.
+	 * @param dst This is the array to copy to.
+	 * @param dstIndex This is the first index to copy to.
+	 * @param count This is the number of ints to copy.
+	 */
+	public static void copy(OffHeapIntArray src, long srcIndex, OffHeapIntArray dst, long dstIndex, long count) {
+		if (count < 0 || srcIndex < 0 || dstIndex < 0 || srcIndex + count > src.length || dstIndex + count > dst.length) {
+			throw new IndexOutOfBoundsException("Error: copy of " + count + " ints is out of range.");
+		}
+		while (count > 0) {
+			IntBuffer from = src.chunks[(int) (srcIndex >>> CHUNK_SHIFT)].duplicate();
+			IntBuffer to = dst.chunks[(int) (dstIndex >>> CHUNK_SHIFT)].duplicate();
+			int fromOffset = (int) (srcIndex & CHUNK_MASK);
+			int toOffset = (int) (dstIndex & CHUNK_MASK);
+			int n = (int) Math.min(count, Math.min(from.capacity() - fromOffset, to.capacity() - toOffset));
+			from.limit(fromOffset + n).position(fromOffset);
+			to.position(toOffset);
+			to.put(from);
+			srcIndex += n;
+			dstIndex += n;
+			count -= n;
+		}
+	}
+
+	private static int chunkCount(long length) {
+		return (int) ((length + CHUNK_INTS - 1) >>> CHUNK_SHIFT);
+	}
+
+	private static int chunkLength(long length, int chunk) {
+		return (int) Math.min(CHUNK_INTS, length - ((long) chunk << CHUNK_SHIFT));
+	}
+}
@@ -0,0 +1,296 @@
+/**
+ * OffHeapSorting.java sorts OffHeapIntArrays in place, so data in direct buffers or mapped files never has to be
+ * copied into an int[]. Every index is a long, so arrays past Integer.MAX_VALUE elements work.
+ * quickSort and heapSort need no extra memory. mergeSort and radixSort need a scratch array as long as the input,
+ * which they allocate off-heap unless the caller passes one, such as a mapped scratch file.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.util.Arrays;
+
+public class OffHeapSorting {
+
+	// Sections at or below this size are insertion sorted.
+	private static final int INSERTION_CUTOFF = 24;
+
+	// Block size that mergeSort insertion sorts before merging.
+	private static final int INSERTION_RUN = 32;
+
+	private static final int BITS = 8;
+	private static final int RADIX = 1 << BITS;
+	private static final int MASK = RADIX - 1;
+
+	/**
+	 * isSorted checks to see if the array is properly sorted.
+	 * @param array This is the array to check.
+	 * @return boolean if the array is sorted
+	 */
+	public static boolean isSorted(OffHeapIntArray array) {
+		long n = array.length();
+		for (long i = 1; i < n; i++) {
+			if (array.get(i - 1) > array.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * quickSort sorts the array in place with an introsort: a median-of-three quick sort that finishes
+	 * small sections with insertion sort and falls back to heapSort when the recursion gets too deep.
+	 * @param array This is the array to sort.
+	 */
+	public static void quickSort(OffHeapIntArray array) {
+		long n = array.length();
+		if (n > 1) {
+			quickSort(array, 0, n - 1, 2 * (63 - Long.numberOfLeadingZeros(n)));
+		}
+	}
+
+	/**
+	 * quickSort sorts array[low, high] with a Hoare partition, recursing on the smaller side so the stack stays O(log n).
+	 */
+	private static void quickSort(OffHeapIntArray array, long low, long high, int depthLimit) {
+		while (high - low > INSERTION_CUTOFF) {
+			if (depthLimit-- == 0) {
+				heapSort(array, low, high);
+				return;
+			}
+			// Hoare partitioning needs the pivot at the lower middle so that neither side comes back empty.
+			long mid = (low + high) >>> 1;
+			array.swap(medianOfThree(array, low, mid, high), mid);
+			int pivot = array.get(mid);
+			long i = low - 1;
+			long j = high + 1;
+			while (true) {
+				do {
+					i++;
+				} while (array.get(i) < pivot);
+				do {
+					j--;
+				} while (array.get(j) > pivot);
+				if (i >= j) {
+					break;
+				}
+				array.swap(i, j);
+			}
+			if (j - low < high - j) {
+				quickSort(array, low, j, depthLimit);
+				low = j + 1;
+			}
+			else {
+				quickSort(array, j + 1, high, depthLimit);
+				high = j;
+			}
+		}
+		insertionSort(array, low, high);
+	}
+
+	/**
+	 * heapSort sorts the array in place by turning it into a max heap.
+	 * @param array This is the array to sort.
+	 */
+	public static void heapSort(OffHeapIntArray array) {
+		if (array.length() > 1) {
+			heapSort(array, 0, array.length() - 1);
+		}
+	}
+
+	/**
+	 * heapSort sorts array[low, high] in place by turning that section into a max heap.
+	 */
+	private static void heapSort(OffHeapIntArray array, long low, long high) {
+		long size = high - low + 1;
+		for (long i = size / 2 - 1; i >= 0; i--) {
+			siftDown(array, low, i, array.get(low + i), size);
+		}
+		for (long i = size - 1; i > 0; i--) {
+			int value = array.get(low + i);
+			array.set(low + i, array.get(low));
+			siftDown(array, low, 0, value, i);
+		}
+	}
+
+	/**
+	 * siftDown places a value into the hole at a node, moving larger children up until the value fits.
+	 */
+	private static void siftDown(OffHeapIntArray array, long offset, long hole, int value, long size) {
+		while (true) {
+			long child = 2 * hole + 1;
+			if (child >= size) {
+				break;
+			}
+			int max = array.get(offset + child);
+			if (child + 1 < size) {
+				int right = array.get(offset + child + 1);
+				if (right > max) {
+					max = right;
+					child++;
+				}
+			}
+			if (max <= value) {
+				break;
+			}
+			array.set(offset + hole, max);
+			hole = child;
+		}
+		array.set(offset + hole, value);
+	}
+
+	/**
+	 * mergeSort sorts the array with a bottom-up merge sort, using an off-heap scratch array of the same length.
+	 * @param array This is the array to sort.
+	 */
+	public static void mergeSort(OffHeapIntArray array) {
+		mergeSort(array, OffHeapIntArray.allocate(array.length()));
+	}
+
+	/**
+	 * mergeSort sorts the array with a bottom-up merge sort, using a caller supplied scratch array.
+	 * Each pass merges from one array into the other, and runs already in order are copied instead of merged.
+	 * @param array This is the array to sort.
+	 * @param scratch This is a scratch array at least as long as the array.
+	 */
+	public static void mergeSort(OffHeapIntArray array, OffHeapIntArray scratch) {
+		long n = array.length();
+		if (scratch.length() < n) {
+			throw new IllegalArgumentException("Error: scratch array is smaller than the array.");
+		}
+		for (long low = 0; low < n; low += INSERTION_RUN) {
+			insertionSort(array, low, Math.min(low + INSERTION_RUN, n) - 1);
+		}
+		OffHeapIntArray src = array;
+		OffHeapIntArray dst = scratch;
+		for (long width = INSERTION_RUN; width < n; width *= 2) {
+			for (long low = 0; low < n; low += 2 * width) {
+				long mid = Math.min(low + width, n);
+				long high = Math.min(low + 2 * width, n);
+				if (mid == high || src.get(mid - 1) <= src.get(mid)) {
+					OffHeapIntArray.copy(src, low, dst, low, high - low);
+				}
+				else {
+					merge(src, dst, low, mid, high);
+				}
+			}
+			OffHeapIntArray temp = src;
+			src = dst;
+			dst = temp;
+		}
+		if (src != array) {
+			OffHeapIntArray.copy(src, 0, array, 0, n);
+		}
+	}
+
+	/**
+	 * merge merges the sorted runs src[low, mid) and src[mid, high) into dst[low, high).
+	 */
+	private static void merge(OffHeapIntArray src, OffHeapIntArray dst, long low, long mid, long high) {
+		long i = low;
+		long j = mid;
+		long k = low;
+		while (i < mid && j < high) {
+			int left = src.get(i);
+			int right = src.get(j);
+			if (left <= right) {
+				dst.set(k++, left);
+				i++;
+			}
+			else {
+				dst.set(k++, right);
+				j++;
+			}
+		}
+		if (i < mid) {
+			OffHeapIntArray.copy(src, i, dst, k, mid - i);
+		}
+		else if (j < high) {
+			OffHeapIntArray.copy(src, j, dst, k, high - j);
+		}
+	}
+
+	/**
+	 * radixSort sorts the array with a least significant digit radix sort, using an off-heap scratch array.
+	 * @param array This is the array to sort.
+	 */
+	public static void radixSort(OffHeapIntArray array) {
+		radixSort(array, OffHeapIntArray.allocate(array.length()));
+	}
+
+	/**
+	 * radixSort sorts the array 8 bits at a time, using a caller supplied scratch array.
+	 * The sign bit is flipped so negative values sort first, and passes where every value shares a digit are skipped.
+	 * @param array This is the array to sort.
+	 * @param scratch This is a scratch array at least as long as the array.
+	 */
+	public static void radixSort(OffHeapIntArray array, OffHeapIntArray scratch) {
+		long n = array.length();
+		if (scratch.length() < n) {
+			throw new IllegalArgumentException("Error: scratch array is smaller than the array.");
+		}
+		long[] count = new long[RADIX];
+		OffHeapIntArray src = array;
+		OffHeapIntArray dst = scratch;
+		for (int shift = 0; shift < Integer.SIZE; shift += BITS) {
+			Arrays.fill(count, 0);
+			for (long i = 0; i < n; i++) {
+				count[digit(src.get(i), shift)]++;
+			}
+			boolean skip = false;
+			long offset = 0;
+			for (int d = 0; d < RADIX; d++) {
+				if (count[d] == n) {
+					skip = true;
+					break;
+				}
+				long c = count[d];
+				count[d] = offset;
+				offset += c;
+			}
+			if (skip) {
+				continue;
+			}
+			for (long i = 0; i < n; i++) {
+				int value = src.get(i);
+				dst.set(count[digit(value, shift)]++, value);
+			}
+			OffHeapIntArray temp = src;
+			src = dst;
+			dst = temp;
+		}
+		if (src != array) {
+			OffHeapIntArray.copy(src, 0, array, 0, n);
+		}
+	}
+
+	private static int digit(int value, int shift) {
+		return ((value ^ Integer.MIN_VALUE) >>> shift) & MASK;
+	}
+
+	/**
+	 * insertionSort sorts array[low, high] by inserting each value into the sorted section before it.
+	 */
+	private static void insertionSort(OffHeapIntArray array, long low, long high) {
+		for (long i = low + 1; i <= high; i++) {
+			int value = array.get(i);
+			long j = i - 1;
+			while (j >= low && array.get(j) > value) {
+				array.set(j + 1, array.get(j));
+				j--;
+			}
+			array.set(j + 1, value);
+		}
+	}
+
+	private static long medianOfThree(OffHeapIntArray array, long a, long b, long c) {
+		int x = array.get(a);
+		int y = array.get(b);
+		int z = array.get(c);
+		if (x < y) {
+			return y < z ? b : (x < z ? c : a);
+		}
+		return x < z ? a : (y < z ? c : b);
+	}
+}
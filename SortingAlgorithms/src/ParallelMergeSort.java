@@ -0,0 +1,313 @@
+/**
+ * ParallelMergeSort.java is a fork-join version of the merge sort found in ArraySorting.
+ * Both the recursive splitting and the merge step are divided into tasks, so the final merges scale too.
+ * The sort is stable and produces the same output as ArraySorting.mergeSort.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ParallelMergeSort {
+
+	// Ranges at or below this size are sorted on a single thread.
+	private static final int SORT_THRESHOLD = 1 << 13;
+
+	// Merges at or below this size are done on a single thread.
+	private static final int MERGE_THRESHOLD = 1 << 13;
+
+	// Ranges at or below this size are insertion sorted.
+	private static final int INSERTION_THRESHOLD = 16;
+
+	// scalingBenchmark runs every configuration this many times untimed, so all of them are compiled first.
+	private static final int WARMUP_ROUNDS = 3;
+
+	// scalingBenchmark reports the median of this many timed runs per configuration.
+	private static final int TIMED_ROUNDS = 5;
+
+	/**
+	 * sort sorts a section of an array using a fork-join pool with the given number of workers.
+	 * @param array This is the array to sort.
+	 * @param low This is the first index of the array partition to sort.
+	 * @param high This is the last index of the array partition to sort.
+	 * @param parallelism This is the number of worker threads to use.
+	 */
+	public static void sort(int[] array, int low, int high, int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Error: parallelism must be at least 1.");
+		}
+		if (low >= high) {
+			return;
+		}
+		int[] scratch = new int[array.length];
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invoke(new SortTask(array, scratch, low, high + 1, false));
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * SortTask sorts array[low, high) and leaves the result in the scratch array when toScratch is set.
+	 * The two halves are sorted into the opposite array so that the merge can write straight into the target.
+	 */
+	private static class SortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int[] array;
+		private final int[] scratch;
+		private final int low;
+		private final int high;
+		private final boolean toScratch;
+
+		SortTask(int[] array, int[] scratch, int low, int high, boolean toScratch) {
+			this.array = array;
+			this.scratch = scratch;
+			this.low = low;
+			this.high = high;
+			this.toScratch = toScratch;
+		}
+
+		@Override
+		protected void compute() {
+			if (high - low <= SORT_THRESHOLD) {
+				sequentialSort(array, scratch, low, high, toScratch);
+				return;
+			}
+			int mid = (low + high) >>> 1;
+			invokeAll(new SortTask(array, scratch, low, mid, !toScratch),
+					new SortTask(array, scratch, mid, high, !toScratch));
+			int[] src = toScratch ? array : scratch;
+			int[] dst = toScratch ? scratch : array;
+			new MergeTask(src, dst, low, mid, mid, high, low).compute();
+		}
+	}
+
+	/**
+	 * MergeTask merges the sorted runs src[lowA, highA) and src[lowB, highB) into dst starting at out.
+	 * Large merges are split around the median of the larger run, found in the other run by binary search.
+	 */
+	private static class MergeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int[] src;
+		private final int[] dst;
+		private final int lowA;
+		private final int highA;
+		private final int lowB;
+		private final int highB;
+		private final int out;
+
+		MergeTask(int[] src, int[] dst, int lowA, int highA, int lowB, int highB, int out) {
+			this.src = src;
+			this.dst = dst;
+			this.lowA = lowA;
+			this.highA = highA;
+			this.lowB = lowB;
+			this.highB = highB;
+			this.out = out;
+		}
+
+		@Override
+		protected void compute() {
+			int lengthA = highA - lowA;
+			int lengthB = highB - lowB;
+			if (lengthA + lengthB <= MERGE_THRESHOLD) {
+				sequentialMerge(src, dst, lowA, highA, lowB, highB, out);
+				return;
+			}
+			int splitA;
+			int splitB;
+			if (lengthA >= lengthB) {
+				// Elements of B strictly less than the pivot go before it to keep the merge stable.
+				splitA = (lowA + highA) >>> 1;
+				splitB = lowerBound(src, lowB, highB, src[splitA]);
+			}
+			else {
+				// Elements of A equal to the pivot go before it to keep the merge stable.
+				splitB = (lowB + highB) >>> 1;
+				splitA = upperBound(src, lowA, highA, src[splitB]);
+			}
+			int splitOut = out + (splitA - lowA) + (splitB - lowB);
+			invokeAll(new MergeTask(src, dst, lowA, splitA, lowB, splitB, out),
+					new MergeTask(src, dst, splitA, highA, splitB, highB, splitOut));
+		}
+	}
+
+	/**
+	 * sequentialSort is a single threaded merge sort that ping-pongs between the array and the scratch array.
+	 * @param array This is the array holding the unsorted values.
+	 * @param scratch This is the scratch array of the same length.
+	 * @param low This is the first index of the range (inclusive).
+	 * @param high This is the last index of the range (exclusive).
+	 * @param toScratch This is whether the sorted range should end up in the scratch array.
+	 */
+	private static void sequentialSort(int[] array, int[] scratch, int low, int high, boolean toScratch) {
+		if (high - low <= INSERTION_THRESHOLD) {
+			insertionSort(array, low, high);
+			if (toScratch) {
+				System.arraycopy(array, low, scratch, low, high - low);
+			}
+			return;
+		}
+		int mid = (low + high) >>> 1;
+		sequentialSort(array, scratch, low, mid, !toScratch);
+		sequentialSort(array, scratch, mid, high, !toScratch);
+		if (toScratch) {
+			sequentialMerge(array, scratch, low, mid, mid, high, low);
+		}
+		else {
+			sequentialMerge(scratch, array, low, mid, mid, high, low);
+		}
+	}
+
+	/**
+	 * sequentialMerge merges two sorted runs of src into dst, taking from the first run on ties.
+	 */
+	private static void sequentialMerge(int[] src, int[] dst, int lowA, int highA, int lowB, int highB, int out) {
+		int i = lowA;
+		int j = lowB;
+		int k = out;
+		while (i < highA && j < highB) {
+			if (src[j] < src[i]) {
+				dst[k++] = src[j++];
+			}
+			else {
+				dst[k++] = src[i++];
+			}
+		}
+		System.arraycopy(src, i, dst, k, highA - i);
+		k += highA - i;
+		System.arraycopy(src, j, dst, k, highB - j);
+	}
+
+	/**
+	 * insertionSort sorts array[low, high) in place.
+	 */
+	private static void insertionSort(int[] array, int low, int high) {
+		for (int i = low + 1; i < high; i++) {
+			int value = array[i];
+			int j = i - 1;
+			while (j >= low && array[j] > value) {
+				array[j + 1] = array[j];
+				j--;
+			}
+			array[j + 1] = value;
+		}
+	}
+
+	/**
+	 * lowerBound finds the first index in array[low, high) whose value is not less than key.
+	 */
+	private static int lowerBound(int[] array, int low, int high, int key) {
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (array[mid] < key) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * upperBound finds the first index in array[low, high) whose value is greater than key.
+	 */
+	private static int upperBound(int[] array, int low, int high, int key) {
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (array[mid] <= key) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * scalingBenchmark sorts the same random input with the sequential ArraySorting.mergeSort and with 1, 2, 4 ... N
+	 * workers, and prints each one's speedup over the sequential sort. Every configuration first runs WARMUP_ROUNDS
+	 * times untimed so none of them is measured in the interpreter, then TIMED_ROUNDS times, and the median time is
+	 * reported with the fastest and slowest run. Every parallel result is checked against the sequential one.
+	 * @param size This is the size of the array to sort.
+	 */
+	public static void scalingBenchmark(int size) {
+		int maxWorkers = Runtime.getRuntime().availableProcessors();
+		Random rand = new Random();
+		int[] input = new int[size];
+		for (int i = 0; i < size; i++) {
+			input[i] = rand.nextInt(1000000000);
+		}
+
+		// 0 stands for the sequential sort.
+		List<Integer> workerCounts = new ArrayList<Integer>();
+		workerCounts.add(0);
+		int workers = 1;
+		while (true) {
+			workerCounts.add(workers);
+			if (workers == maxWorkers) {
+				break;
+			}
+			workers = Math.min(workers * 2, maxWorkers);
+		}
+
+		int[] expected = input.clone();
+		new ArraySorting(expected).mergeSort(0, expected.length-1);
+		for (int round = 0; round < WARMUP_ROUNDS; round++) {
+			for (int count : workerCounts) {
+				timeSort(input.clone(), count);
+			}
+		}
+
+		long sequentialTime = 0;
+		for (int count : workerCounts) {
+			long[] times = new long[TIMED_ROUNDS];
+			boolean matches = true;
+			for (int round = 0; round < TIMED_ROUNDS; round++) {
+				int[] copy = input.clone();
+				times[round] = timeSort(copy, count);
+				matches &= count == 0 || Arrays.equals(expected, copy);
+			}
+			Arrays.sort(times);
+			long median = times[TIMED_ROUNDS / 2];
+			if (count == 0) {
+				sequentialTime = median;
+				System.out.printf("Sequential mergeSort - Size: %d, Median time (ms): %.2f (%.2f to %.2f)%n", size,
+						median / 1e6, times[0] / 1e6, times[TIMED_ROUNDS - 1] / 1e6);
+			}
+			else {
+				System.out.printf("Parallel mergeSort - Workers: %d, Median time (ms): %.2f (%.2f to %.2f), Speedup: %.2fx, "
+						+ "Matches sequential: %b%n", count, median / 1e6, times[0] / 1e6, times[TIMED_ROUNDS - 1] / 1e6,
+						(double) sequentialTime / median, matches);
+			}
+		}
+	}
+
+	/**
+	 * timeSort sorts an array in place and returns how long it took.
+	 * @param array This is the array to sort.
+	 * @param workers This is the number of workers, or 0 for the sequential ArraySorting.mergeSort.
+	 * @return long The time in nanoseconds.
+	 */
+	private static long timeSort(int[] array, int workers) {
+		long startTime = System.nanoTime();
+		if (workers == 0) {
+			new ArraySorting(array).mergeSort(0, array.length-1);
+		}
+		else {
+			sort(array, 0, array.length-1, workers);
+		}
+		return System.nanoTime() - startTime;
+	}
+}
@@ -0,0 +1,181 @@
+/**
+ * RadixSort.java is a least significant digit radix sort for int arrays.
+ * Keys are sorted 8 bits at a time. The sign bit is flipped so negative values sort before positive ones.
+ * Passes where every key shares the same digit are skipped.
+ * Large arrays count and scatter in parallel, with each worker owning one contiguous chunk of the array.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class RadixSort {
+
+	private static final int BITS = 8;
+	private static final int RADIX = 1 << BITS;
+	private static final int MASK = RADIX - 1;
+	private static final int PASSES = Integer.SIZE / BITS;
+
+	// Arrays below this size are sorted on a single thread.
+	private static final int PARALLEL_THRESHOLD = 1 << 20;
+
+	/**
+	 * sort sorts the array, using every available processor when the array is large.
+	 * @param array This is the array to sort.
+	 */
+	public static void sort(int[] array) {
+		int parallelism = array.length < PARALLEL_THRESHOLD ? 1 : Runtime.getRuntime().availableProcessors();
+		sort(array, new int[array.length], parallelism);
+	}
+
+	/**
+	 * sort sorts the array using a caller supplied scratch array and the given number of workers.
+	 * @param array This is the array to sort.
+	 * @param scratch This is a scratch array at least as long as the array.
+	 * @param parallelism This is the number of worker threads to use.
+	 */
+	public static void sort(int[] array, int[] scratch, int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Error: parallelism must be at least 1.");
+		}
+		if (scratch.length < array.length) {
+			throw new IllegalArgumentException("Error: scratch array is smaller than the array.");
+		}
+		int n = array.length;
+		if (n < 2) {
+			return;
+		}
+		int chunks = (parallelism == 1 || n < PARALLEL_THRESHOLD) ? 1 : parallelism;
+		int[][] counts = new int[chunks][RADIX];
+		ForkJoinPool pool = chunks == 1 ? null : new ForkJoinPool(chunks);
+		try {
+			int[] src = array;
+			int[] dst = scratch;
+			for (int pass = 0; pass < PASSES; pass++) {
+				int shift = pass * BITS;
+				run(pool, new ChunkTask(src, dst, n, counts, shift, false));
+				if (!prefixSums(counts, n)) {
+					continue;
+				}
+				run(pool, new ChunkTask(src, dst, n, counts, shift, true));
+				int[] temp = src;
+				src = dst;
+				dst = temp;
+			}
+			if (src != array) {
+				System.arraycopy(src, 0, array, 0, n);
+			}
+		}
+		finally {
+			if (pool != null) {
+				pool.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * digit returns the given digit of a key with the sign bit flipped, so that unsigned digit order matches signed order.
+	 */
+	private static int digit(int key, int shift) {
+		return ((key ^ Integer.MIN_VALUE) >>> shift) & MASK;
+	}
+
+	/**
+	 * prefixSums turns the per chunk digit counts into each chunk's starting offset for each digit.
+	 * Offsets are ordered by digit first and chunk second, which keeps the scatter stable.
+	 * @param counts This is the count of each digit in each chunk and is overwritten with the offsets.
+	 * @param n This is the total number of keys.
+	 * @return boolean False when every key has the same digit and the pass can be skipped.
+	 */
+	private static boolean prefixSums(int[][] counts, int n) {
+		int offset = 0;
+		for (int d = 0; d < RADIX; d++) {
+			int total = 0;
+			for (int c = 0; c < counts.length; c++) {
+				total += counts[c][d];
+			}
+			if (total == n) {
+				return false;
+			}
+			for (int c = 0; c < counts.length; c++) {
+				int count = counts[c][d];
+				counts[c][d] = offset;
+				offset += count;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * run runs the task on the calling thread when there is no pool, or in the pool otherwise.
+	 */
+	private static void run(ForkJoinPool pool, ChunkTask task) {
+		if (pool == null) {
+			task.compute();
+		}
+		else {
+			pool.invoke(task);
+		}
+	}
+
+	/**
+	 * ChunkTask either counts the digits of each chunk or scatters each chunk to its offsets.
+	 * The top level task forks one subtask per chunk.
+	 */
+	private static class ChunkTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int[] src;
+		private final int[] dst;
+		private final int length;
+		private final int[][] counts;
+		private final int shift;
+		private final boolean scatter;
+		private final int chunk;
+
+		ChunkTask(int[] src, int[] dst, int length, int[][] counts, int shift, boolean scatter) {
+			this(src, dst, length, counts, shift, scatter, -1);
+		}
+
+		private ChunkTask(int[] src, int[] dst, int length, int[][] counts, int shift, boolean scatter, int chunk) {
+			this.src = src;
+			this.dst = dst;
+			this.length = length;
+			this.counts = counts;
+			this.shift = shift;
+			this.scatter = scatter;
+			this.chunk = chunk;
+		}
+
+		@Override
+		protected void compute() {
+			if (chunk < 0 && counts.length > 1) {
+				ChunkTask[] tasks = new ChunkTask[counts.length];
+				for (int c = 0; c < tasks.length; c++) {
+					tasks[c] = new ChunkTask(src, dst, length, counts, shift, scatter, c);
+				}
+				invokeAll(tasks);
+				return;
+			}
+			int c = Math.max(chunk, 0);
+			int low = (int) ((long) length * c / counts.length);
+			int high = (int) ((long) length * (c + 1) / counts.length);
+			int[] count = counts[c];
+			if (scatter) {
+				for (int i = low; i < high; i++) {
+					int key = src[i];
+					dst[count[digit(key, shift)]++] = key;
+				}
+			}
+			else {
+				Arrays.fill(count, 0);
+				for (int i = low; i < high; i++) {
+					count[digit(src[i], shift)]++;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,505 @@
+/**
+ * SortBenchmark.java is a benchmark harness for the sorting algorithms in ArraySorting.
+ * It follows the same method as JMH. Each trial (algorithm, size, distribution) runs in its own forked JVM,
+ * warmup iterations are discarded, and every algorithm sorts a copy of the same seeded input.
+ * Results feed a blackhole, and the sorted output of each iteration is checked.
+ * Both average time and throughput are reported along with GC profiling (bytes allocated per operation,
+ * collection count and time). Results are also written to a CSV file.
+ *
+ * Usage: SortBenchmark [--algorithms a,b] [--sizes 10,100] [--distributions uniform,sorted]
+ *                      [--warmup n] [--iterations n] [--time ms] [--forks n] [--seed n]
+ *                      [--timeout seconds] [--output file.csv] [--jvmArgs "-Xmx8g ..."]
+ *                      [--variants "name=-Dflag=a;other=-Dflag=b"]
+ *
+ * Variants run every trial once per set of extra JVM arguments and report each variant's difference
+ * from the first. For example, --variants "off=-Dsort.metrics=false;on=-Dsort.metrics=true" measures the
+ * cost of SortMetrics. Running the same command on an older commit gives the baseline for the CSV.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+public class SortBenchmark {
+
+	public static final String[] ALGORITHMS = {"mergeSort", "bottomUpMergeSort", "parallelMergeSort", "quickSort",
+			"introSort", "branchlessSort", "heapSort", "daryHeapSort2", "daryHeapSort4", "daryHeapSort8", "radixSort",
+			"adaptiveSort"};
+
+	public static final String[] DISTRIBUTIONS = {"uniform", "sorted", "nearlySorted", "reverse", "sawtooth", "organPipe",
+			"fewUnique", "zipf", "allEqual"};
+
+	// The blackhole. Every sort folds part of its output in here so the JIT can't drop the work.
+	private static volatile long sink;
+
+	/**
+	 * Options holds the benchmark parameters parsed from the command line.
+	 */
+	public static class Options {
+		public List<String> algorithms = new ArrayList<String>(Arrays.asList(ALGORITHMS));
+		public List<String> distributions = new ArrayList<String>(Arrays.asList(DISTRIBUTIONS));
+		public int[] sizes = {10, 100, 1000, 10000, 100000, 1000000, 10000000};
+		public int warmup = 3;
+		public int iterations = 5;
+		public long iterationMillis = 1000;
+		public int forks = 1;
+		public long timeoutSeconds = 600;
+		public long seed = 42;
+		public String output = "sort-benchmark.csv";
+		public List<String> jvmArgs = new ArrayList<String>();
+		public List<String> variantNames = new ArrayList<String>(Arrays.asList(""));
+		public List<List<String>> variantArgs = new ArrayList<List<String>>(Arrays.asList(new ArrayList<String>()));
+
+		/**
+		 * parse reads options of the form --name value.
+		 * @param args This is arguments from the command line.
+		 * @return Options The parsed options.
+		 */
+		public static Options parse(String[] args) {
+			Options options = new Options();
+			for (int i = 0; i + 1 < args.length; i += 2) {
+				String value = args[i + 1];
+				switch (args[i]) {
+					case "--algorithms":
+						options.algorithms = Arrays.asList(value.split(","));
+						break;
+					case "--distributions":
+						options.distributions = Arrays.asList(value.split(","));
+						break;
+					case "--sizes":
+						String[] sizes = value.split(",");
+						options.sizes = new int[sizes.length];
+						for (int k = 0; k < sizes.length; k++) {
+							options.sizes[k] = (int) Double.parseDouble(sizes[k]);
+						}
+						break;
+					case "--warmup":
+						options.warmup = Integer.parseInt(value);
+						break;
+					case "--iterations":
+						options.iterations = Integer.parseInt(value);
+						break;
+					case "--time":
+						options.iterationMillis = Long.parseLong(value);
+						break;
+					case "--forks":
+						options.forks = Integer.parseInt(value);
+						break;
+					case "--timeout":
+						options.timeoutSeconds = Long.parseLong(value);
+						break;
+					case "--seed":
+						options.seed = Long.parseLong(value);
+						break;
+					case "--output":
+						options.output = value;
+						break;
+					case "--jvmArgs":
+						options.jvmArgs = Arrays.asList(value.trim().split("\\s+"));
+						break;
+					case "--variants":
+						options.variantNames = new ArrayList<String>();
+						options.variantArgs = new ArrayList<List<String>>();
+						for (String variant : value.split(";")) {
+							String[] parts = variant.split("=", 2);
+							options.variantNames.add(parts[0].trim());
+							options.variantArgs.add(parts.length < 2 || parts[1].trim().isEmpty()
+									? new ArrayList<String>() : Arrays.asList(parts[1].trim().split("\\s+")));
+						}
+						break;
+					default:
+						throw new IllegalArgumentException("Error: unknown option " + args[i]);
+				}
+			}
+			return options;
+		}
+
+		/**
+		 * toArgs turns the iteration settings back into command line arguments for a forked JVM.
+		 * @return List The arguments.
+		 */
+		List<String> toArgs() {
+			return Arrays.asList("--warmup", "" + warmup, "--iterations", "" + iterations,
+					"--time", "" + iterationMillis, "--seed", "" + seed);
+		}
+	}
+
+	/**
+	 * Iteration holds the measurements of one measurement iteration.
+	 */
+	private static class Iteration {
+		long operations;
+		long nanos;
+		long allocatedBytes;
+		long gcCount;
+		long gcMillis;
+
+		double nanosPerOperation() {
+			return (double) nanos / operations;
+		}
+
+		String toLine() {
+			return "ITERATION," + operations + "," + nanos + "," + allocatedBytes + "," + gcCount + "," + gcMillis;
+		}
+
+		static Iteration fromLine(String line) {
+			String[] fields = line.split(",");
+			Iteration iteration = new Iteration();
+			iteration.operations = Long.parseLong(fields[1]);
+			iteration.nanos = Long.parseLong(fields[2]);
+			iteration.allocatedBytes = Long.parseLong(fields[3]);
+			iteration.gcCount = Long.parseLong(fields[4]);
+			iteration.gcMillis = Long.parseLong(fields[5]);
+			return iteration;
+		}
+	}
+
+	/**
+	 * sort runs the named algorithm on the array.
+	 * @param algorithm This is the name of the algorithm.
+	 * @param array This is the array to sort in place.
+	 */
+	public static void sort(String algorithm, int[] array) {
+		ArraySorting sorter = new ArraySorting(array);
+		switch (algorithm) {
+			case "mergeSort":
+				sorter.mergeSort(0, array.length-1);
+				break;
+			case "bottomUpMergeSort":
+				sorter.bottomUpMergeSort();
+				break;
+			case "parallelMergeSort":
+				sorter.parallelMergeSort(Runtime.getRuntime().availableProcessors());
+				break;
+			case "quickSort":
+				sorter.quickSort(0, array.length-1);
+				break;
+			case "introSort":
+				sorter.introSort();
+				break;
+			case "branchlessSort":
+				sorter.branchlessSort();
+				break;
+			case "heapSort":
+				sorter.heapSort();
+				break;
+			case "daryHeapSort2":
+				sorter.daryHeapSort(2);
+				break;
+			case "daryHeapSort4":
+				sorter.daryHeapSort(4);
+				break;
+			case "daryHeapSort8":
+				sorter.daryHeapSort(8);
+				break;
+			case "radixSort":
+				sorter.radixSort();
+				break;
+			case "adaptiveSort":
+				sorter.adaptiveSort();
+				break;
+			default:
+				throw new IllegalArgumentException("Error: unknown algorithm " + algorithm);
+		}
+	}
+
+	/**
+	 * generate builds the input for a trial with WorkloadGenerator. The same seed, distribution and size always
+	 * give the same array.
+	 * @param distribution This is the name of the input distribution, such as "fewUnique".
+	 * @param size This is the size of the array.
+	 * @param seed This is the seed for the random values.
+	 * @return int[] The input array.
+	 */
+	public static int[] generate(String distribution, int size, long seed) {
+		return WorkloadGenerator.generate(WorkloadGenerator.Distribution.parse(distribution), size, seed);
+	}
+
+	/**
+	 * runIterations runs the warmup and measurement iterations of one trial in this JVM.
+	 * Copying the input before each operation isn't counted in the time.
+	 * @param algorithm This is the name of the algorithm.
+	 * @param input This is the input array, which is never modified.
+	 * @param options This is the benchmark options.
+	 * @return List The measurement iterations.
+	 */
+	private static List<Iteration> runIterations(String algorithm, int[] input, Options options) {
+		int[] work = new int[input.length];
+		SortVerifier.Fingerprint expected = SortVerifier.fingerprint(input);
+		long iterationNanos = options.iterationMillis * 1000000L;
+		List<Iteration> results = new ArrayList<Iteration>();
+		for (int k = 0; k < options.warmup + options.iterations; k++) {
+			Iteration iteration = new Iteration();
+			long gcCount = gcCount();
+			long gcMillis = gcMillis();
+			long allocated = allocatedBytes();
+			while (iteration.nanos < iterationNanos || iteration.operations == 0) {
+				System.arraycopy(input, 0, work, 0, input.length);
+				long startTime = System.nanoTime();
+				sort(algorithm, work);
+				iteration.nanos += System.nanoTime() - startTime;
+				iteration.operations++;
+				if (work.length > 0) {
+					sink += work[0] + work[work.length / 2] + work[work.length - 1];
+				}
+			}
+			iteration.allocatedBytes = allocatedBytes() - allocated;
+			iteration.gcCount = gcCount() - gcCount;
+			iteration.gcMillis = gcMillis() - gcMillis;
+			try {
+				SortVerifier.verify(work, expected);
+			}
+			catch (IllegalStateException e) {
+				throw new IllegalStateException("Error: " + algorithm + " failed verification. " + e.getMessage(), e);
+			}
+			if (k >= options.warmup) {
+				results.add(iteration);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * forkIterations runs one trial in a new JVM with the same classpath and reads back its iterations.
+	 * @param algorithm This is the name of the algorithm.
+	 * @param distribution This is the name of the input distribution.
+	 * @param size This is the size of the array.
+	 * @param options This is the benchmark options.
+	 * @param variantArgs This is the extra JVM arguments of the variant being run.
+	 * @return List The measurement iterations.
+	 * @throws IOException Error when the forked JVM can't be started or fails.
+	 * @throws InterruptedException Error when interrupted while waiting for the forked JVM.
+	 */
+	private static List<Iteration> forkIterations(String algorithm, String distribution, int size, Options options,
+			List<String> variantArgs) throws IOException, InterruptedException {
+		List<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		command.addAll(options.jvmArgs);
+		command.addAll(variantArgs);
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(SortBenchmark.class.getName());
+		command.add("--child");
+		command.add(algorithm + "," + distribution + "," + size);
+		command.addAll(options.toArgs());
+
+		// Output goes to a file so that a trial that runs past the timeout can be killed without blocking on a pipe.
+		File log = File.createTempFile("sortbench", ".log");
+		try {
+			Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+			if (!process.waitFor(options.timeoutSeconds, TimeUnit.SECONDS)) {
+				process.destroyForcibly().waitFor();
+				throw new IOException("Error: trial timed out after " + options.timeoutSeconds + " seconds.");
+			}
+			List<Iteration> results = new ArrayList<Iteration>();
+			String firstError = "";
+			for (String line : Files.readAllLines(log.toPath(), StandardCharsets.UTF_8)) {
+				if (line.startsWith("ITERATION,")) {
+					results.add(Iteration.fromLine(line));
+				}
+				else if (firstError.isEmpty()) {
+					firstError = line;
+				}
+			}
+			if (process.exitValue() != 0) {
+				throw new IOException("Error: forked trial failed. " + firstError);
+			}
+			return results;
+		}
+		finally {
+			log.delete();
+		}
+	}
+
+	/**
+	 * allocatedBytes returns the number of bytes the current thread has allocated so far, or 0 when the JVM can't tell.
+	 * @return long The bytes allocated by this thread.
+	 */
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	/**
+	 * gcCount returns the total number of garbage collections run so far.
+	 * @return long The number of collections.
+	 */
+	private static long gcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, bean.getCollectionCount());
+		}
+		return count;
+	}
+
+	/**
+	 * gcMillis returns the total time spent in garbage collection so far.
+	 * @return long The collection time in milliseconds.
+	 */
+	private static long gcMillis() {
+		long time = 0;
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			time += Math.max(0, bean.getCollectionTime());
+		}
+		return time;
+	}
+
+	/**
+	 * run runs every trial in the options, prints a summary table and writes the CSV file.
+	 * @param options This is the benchmark options.
+	 * @throws IOException Error when a forked JVM fails or the results can't be written.
+	 * @throws InterruptedException Error when interrupted while waiting for a forked JVM.
+	 */
+	public static void run(Options options) throws IOException, InterruptedException {
+		if (options.forks == 0 && options.variantNames.size() > 1) {
+			throw new IllegalArgumentException("Error: variants need forks, since each one runs in its own JVM.");
+		}
+		try (PrintWriter csv = new PrintWriter(options.output, "UTF-8")) {
+			csv.println("variant,algorithm,distribution,size,mode,score,error,unit,samples,gc.alloc.rate.norm,gc.count,gc.time");
+			System.out.printf(Locale.ROOT, "%-10s %-18s %-12s %10s %14s %12s %14s %12s %10s%n", "Variant", "Algorithm", "Input", "Size",
+					"avgt (ms/op)", "+/- error", "thrpt (ops/s)", "B/op", "GCs");
+			for (int size : options.sizes) {
+				for (String distribution : options.distributions) {
+					int[] input = options.forks == 0 ? generate(distribution, size, options.seed) : null;
+					for (String algorithm : options.algorithms) {
+						double[] baseline = null;
+						for (int v = 0; v < options.variantNames.size(); v++) {
+							String variant = options.variantNames.get(v);
+							List<Iteration> iterations = new ArrayList<Iteration>();
+							try {
+								if (options.forks == 0) {
+									iterations.addAll(runIterations(algorithm, input, options));
+								}
+								for (int f = 0; f < options.forks; f++) {
+									iterations.addAll(forkIterations(algorithm, distribution, size, options, options.variantArgs.get(v)));
+								}
+							}
+							catch (IOException | RuntimeException | StackOverflowError e) {
+								// quickSort can overflow the stack or run for hours on sorted input. Record it and move on.
+								System.out.printf(Locale.ROOT, "%-10s %-18s %-12s %10d failed: %s%n", variant, algorithm, distribution, size, e);
+								csv.printf(Locale.ROOT, "%s,%s,%s,%d,avgt,NaN,NaN,ms/op,0,0,0,0%n", variant, algorithm, distribution, size);
+								continue;
+							}
+							double[] score = report(csv, variant, algorithm, distribution, size, iterations);
+							if (v == 0) {
+								baseline = score;
+							}
+							else if (baseline != null) {
+								System.out.printf(Locale.ROOT, "%-10s %+.2f%% +/- %.2f%% against %s%n", "", 100 * (score[0] / baseline[0] - 1),
+										100 * (score[1] + baseline[1]) / baseline[0], options.variantNames.get(0));
+							}
+						}
+					}
+				}
+			}
+		}
+		System.out.println("Results written to " + options.output);
+	}
+
+	/**
+	 * report prints one table row and writes the average time and throughput rows to the CSV file.
+	 * The error is the half width of a 99.9% confidence interval, like JMH reports.
+	 * @return double[] The average time and its error.
+	 */
+	private static double[] report(PrintWriter csv, String variant, String algorithm, String distribution, int size,
+			List<Iteration> iterations) {
+		int n = iterations.size();
+		double[] avgt = new double[n];
+		double[] thrpt = new double[n];
+		long operations = 0;
+		long allocated = 0;
+		long gcCount = 0;
+		long gcMillis = 0;
+		for (int i = 0; i < n; i++) {
+			Iteration iteration = iterations.get(i);
+			avgt[i] = iteration.nanosPerOperation() / 1e6;
+			thrpt[i] = 1e9 / iteration.nanosPerOperation();
+			operations += iteration.operations;
+			allocated += iteration.allocatedBytes;
+			gcCount += iteration.gcCount;
+			gcMillis += iteration.gcMillis;
+		}
+		long bytesPerOperation = operations == 0 ? 0 : allocated / operations;
+		System.out.printf(Locale.ROOT, "%-10s %-18s %-12s %10d %14.4f %12.4f %14.2f %12d %10d%n", variant, algorithm, distribution, size,
+				mean(avgt), error(avgt), mean(thrpt), bytesPerOperation, gcCount);
+		csv.printf(Locale.ROOT, "%s,%s,%s,%d,avgt,%.6f,%.6f,ms/op,%d,%d,%d,%d%n", variant, algorithm, distribution, size,
+				mean(avgt), error(avgt), n, bytesPerOperation, gcCount, gcMillis);
+		csv.printf(Locale.ROOT, "%s,%s,%s,%d,thrpt,%.6f,%.6f,ops/s,%d,%d,%d,%d%n", variant, algorithm, distribution, size,
+				mean(thrpt), error(thrpt), n, bytesPerOperation, gcCount, gcMillis);
+		csv.flush();
+		return new double[] {mean(avgt), error(avgt)};
+	}
+
+	private static double mean(double[] values) {
+		double sum = 0;
+		for (double value : values) {
+			sum += value;
+		}
+		return values.length == 0 ? Double.NaN : sum / values.length;
+	}
+
+	private static double error(double[] values) {
+		if (values.length < 2) {
+			return Double.NaN;
+		}
+		double mean = mean(values);
+		double squares = 0;
+		for (double value : values) {
+			squares += (value - mean) * (value - mean);
+		}
+		double stddev = Math.sqrt(squares / (values.length - 1));
+		return studentT999(values.length - 1) * stddev / Math.sqrt(values.length);
+	}
+
+	/**
+	 * studentT999 returns the two sided 99.9% critical value of Student's t distribution.
+	 * Past the table it uses the value for the lower end of each bracket, which is slightly too large,
+	 * so the interval errs on the wide side.
+	 * @param df This is the degrees of freedom.
+	 * @return double The critical value.
+	 */
+	private static double studentT999(int df) {
+		double[] table = {636.62, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587,
+				4.437, 4.318, 4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850,
+				3.819, 3.792, 3.768, 3.745, 3.725, 3.707, 3.690, 3.674, 3.659, 3.646};
+		if (df <= table.length) {
+			return table[df - 1];
+		}
+		return df <= 40 ? 3.646 : df <= 60 ? 3.551 : df <= 120 ? 3.460 : 3.373;
+	}
+
+	/**
+	 * Main runs the benchmark with options from the command line.
+	 * A forked JVM is started with --child algorithm,distribution,size and prints its iterations.
+	 * @param args This is arguments from the command line.
+	 * @throws Exception Error when a trial fails.
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length >= 2 && args[0].equals("--child")) {
+			String[] trial = args[1].split(",");
+			Options options = Options.parse(Arrays.copyOfRange(args, 2, args.length));
+			int[] input = generate(trial[1], Integer.parseInt(trial[2]), options.seed);
+			for (Iteration iteration : runIterations(trial[0], input, options)) {
+				System.out.println(iteration.toLine());
+			}
+			return;
+		}
+		run(Options.parse(args));
+	}
+}
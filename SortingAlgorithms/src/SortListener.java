@@ -0,0 +1,17 @@
+/**
+ * SortListener.java is told about the metrics of each instrumented sort when it finishes.
+ * Metrics are only collected when the JVM is started with -Dsort.metrics=true.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+public interface SortListener {
+
+	/**
+	 * sortFinished is called after each top level sort finishes.
+	 * @param metrics This is the metrics of the finished sort.
+	 */
+	void sortFinished(SortMetrics metrics);
+}
@@ -0,0 +1,183 @@
+/**
+ * SortMetrics.java collects comparison, move, recursion depth, scratch allocation and per-phase timing
+ * counts from the sorts in ArraySorting.
+ *
+ * Metrics are off unless the JVM is started with -Dsort.metrics=true. Every probe in ArraySorting is guarded
+ * by the static final ENABLED flag, which the JIT treats as a constant, so with metrics off the probes are
+ * compiled away and the sorts run the same machine code as without them.
+ *
+ * Comparisons are counted in partition, merge, maxHeapify, insertionSort, the bottom-up merge passes,
+ * and introSort's three-way partition and pivot selection.
+ *
+ * The counters are static and not synchronized, so only one instrumented sort should run at a time.
+ * When a top level sort finishes, its metrics are passed to the listener, if one is set, and kept for last().
+ * That includes a sort that ended by throwing, whose counts stop where it failed.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class SortMetrics {
+
+	public static final boolean ENABLED = Boolean.getBoolean("sort.metrics");
+
+	private static SortListener listener;
+	private static SortMetrics last;
+
+	private static String algorithm;
+	private static long comparisons;
+	private static long moves;
+	private static long scratchBytes;
+	private static int depth;
+	private static int maxDepth;
+	private static long startTime;
+	private static String phase;
+	private static long phaseStart;
+	private static Map<String, Long> phases = new LinkedHashMap<String, Long>();
+
+	public final String name;
+	public final long totalComparisons;
+	public final long totalMoves;
+	public final long totalScratchBytes;
+	public final int maxRecursionDepth;
+	public final long elapsedNanos;
+	public final Map<String, Long> phaseNanos;
+
+	private SortMetrics(String name, long totalComparisons, long totalMoves, long totalScratchBytes, int maxRecursionDepth,
+			long elapsedNanos, Map<String, Long> phaseNanos) {
+		this.name = name;
+		this.totalComparisons = totalComparisons;
+		this.totalMoves = totalMoves;
+		this.totalScratchBytes = totalScratchBytes;
+		this.maxRecursionDepth = maxRecursionDepth;
+		this.elapsedNanos = elapsedNanos;
+		this.phaseNanos = Collections.unmodifiableMap(phaseNanos);
+	}
+
+	/**
+	 * setListener sets the listener that is told about every finished top level sort.
+	 * @param sortListener This is the listener, or null for none.
+	 */
+	public static void setListener(SortListener sortListener) {
+		listener = sortListener;
+	}
+
+	/**
+	 * last returns the metrics of the most recently finished top level sort.
+	 * @return SortMetrics The metrics, or null when none has finished or metrics are off.
+	 */
+	public static SortMetrics last() {
+		return last;
+	}
+
+	/**
+	 * enter marks the start of a call to a public sort. The outermost call starts a new measurement.
+	 * @param name This is the name of the sort.
+	 * @return int The recursion depth before the call, to be passed to exit.
+	 */
+	static int enter(String name) {
+		int outer = depth;
+		if (depth == 0) {
+			algorithm = name;
+			comparisons = 0;
+			moves = 0;
+			scratchBytes = 0;
+			maxDepth = 0;
+			phase = null;
+			phases = new LinkedHashMap<String, Long>();
+			startTime = System.nanoTime();
+		}
+		push();
+		return outer;
+	}
+
+	/**
+	 * exit marks the end of a call to a public sort, and is called from a finally block so it also runs when the
+	 * sort throws. It restores the depth from enter, which also undoes any push whose pop the exception skipped,
+	 * so a failed sort can't leave the counters stuck. The outermost call finishes the measurement.
+	 * @param outer This is the depth returned by the matching enter.
+	 */
+	static void exit(int outer) {
+		depth = outer;
+		if (depth == 0 && algorithm != null) {
+			phase(null);
+			last = new SortMetrics(algorithm, comparisons, moves, scratchBytes, maxDepth, System.nanoTime() - startTime, phases);
+			algorithm = null;
+			if (listener != null) {
+				listener.sortFinished(last);
+			}
+		}
+	}
+
+	/**
+	 * push records one level of recursion in a helper method.
+	 */
+	static void push() {
+		depth++;
+		if (depth > maxDepth) {
+			maxDepth = depth;
+		}
+	}
+
+	/**
+	 * pop records returning from one level of recursion in a helper method.
+	 */
+	static void pop() {
+		depth--;
+	}
+
+	/**
+	 * compare records comparisons between array elements.
+	 * @param count This is the number of comparisons.
+	 */
+	static void compare(int count) {
+		comparisons += count;
+	}
+
+	/**
+	 * move records writes of array elements.
+	 * @param count This is the number of writes.
+	 */
+	static void move(int count) {
+		moves += count;
+	}
+
+	/**
+	 * allocate records scratch memory allocated by a sort.
+	 * @param bytes This is the number of bytes allocated.
+	 */
+	static void allocate(long bytes) {
+		scratchBytes += bytes;
+	}
+
+	/**
+	 * phase ends the current phase of the sort and starts a new one.
+	 * @param name This is the name of the new phase, or null to just end the current one.
+	 */
+	static void phase(String name) {
+		long now = System.nanoTime();
+		if (phase != null) {
+			Long total = phases.get(phase);
+			phases.put(phase, (total == null ? 0 : total) + now - phaseStart);
+		}
+		phase = name;
+		phaseStart = now;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(name).append(" - Comparisons: ").append(totalComparisons).append(", Moves: ").append(totalMoves)
+				.append(", Max depth: ").append(maxRecursionDepth).append(", Scratch bytes: ").append(totalScratchBytes)
+				.append(", Time (ms): ").append(elapsedNanos / 1000000);
+		for (Map.Entry<String, Long> entry : phaseNanos.entrySet()) {
+			builder.append(", ").append(entry.getKey()).append(" (ms): ").append(entry.getValue() / 1000000);
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,280 @@
+/**
+ * SortVerifier.java checks that a sort really worked: the output must be in order and must hold exactly the
+ * same values as the input. isSorted alone misses a sort that drops or duplicates values.
+ *
+ * The values are compared with an order independent fingerprint of the multiset: the count plus two 64 bit
+ * sums of differently mixed hashes of every value. Reordering values doesn't change the sums, but losing,
+ * duplicating or altering a value changes both with overwhelming probability. Sums combine across chunks, so
+ * in-memory arrays are fingerprinted and checked for order in parallel. Accumulator does the same in one
+ * streaming pass for files and off-heap arrays.
+ *
+ * Usage: take fingerprint(array) before sorting, then call verify(array, before) afterwards.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+public class SortVerifier {
+
+	// Number of elements checked by one task.
+	private static final int CHUNK = 1 << 16;
+
+	// Size of the read buffer for streaming a file.
+	private static final int BUFFER_BYTES = 1 << 22;
+
+	/**
+	 * Fingerprint is an order independent summary of a multiset of ints.
+	 */
+	public static final class Fingerprint {
+		public final long count;
+		public final long sum;
+		public final long mixedSum;
+
+		Fingerprint(long count, long sum, long mixedSum) {
+			this.count = count;
+			this.sum = sum;
+			this.mixedSum = mixedSum;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Fingerprint)) {
+				return false;
+			}
+			Fingerprint that = (Fingerprint) other;
+			return count == that.count && sum == that.sum && mixedSum == that.mixedSum;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(sum ^ mixedSum);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d values, %016x/%016x", count, sum, mixedSum);
+		}
+	}
+
+	/**
+	 * Accumulator fingerprints and order checks values one at a time, for data that is streamed rather than held
+	 * in an int[]. Feed it values in order, then read fingerprint() and firstUnsorted().
+	 */
+	public static final class Accumulator implements IntConsumer {
+		private long count;
+		private long sum;
+		private long mixedSum;
+		private int previous;
+		private long firstUnsorted = -1;
+
+		@Override
+		public void accept(int value) {
+			if (count > 0 && previous > value && firstUnsorted < 0) {
+				firstUnsorted = count;
+			}
+			previous = value;
+			sum += hash(value);
+			mixedSum += mixedHash(value);
+			count++;
+		}
+
+		/**
+		 * fingerprint returns the fingerprint of every value accepted so far.
+		 * @return Fingerprint The fingerprint.
+		 */
+		public Fingerprint fingerprint() {
+			return new Fingerprint(count, sum, mixedSum);
+		}
+
+		/**
+		 * isSorted reports whether every value accepted so far was at least the one before it.
+		 * @return boolean if the values arrived in order
+		 */
+		public boolean isSorted() {
+			return firstUnsorted < 0;
+		}
+
+		/**
+		 * firstUnsorted returns the position of the first value that was smaller than the one before it.
+		 * @return long The position, or -1 if the values arrived in order.
+		 */
+		public long firstUnsorted() {
+			return firstUnsorted;
+		}
+	}
+
+	/**
+	 * fingerprint takes the fingerprint of an array, using every available processor.
+	 * @param array This is the array.
+	 * @return Fingerprint The fingerprint.
+	 */
+	public static Fingerprint fingerprint(final int[] array) {
+		int chunks = (array.length + CHUNK - 1) / CHUNK;
+		final long[] sums = new long[chunks];
+		final long[] mixedSums = new long[chunks];
+		IntStream.range(0, chunks).parallel().forEach(c -> {
+			int high = Math.min((c + 1) * CHUNK, array.length);
+			long sum = 0;
+			long mixedSum = 0;
+			for (int i = c * CHUNK; i < high; i++) {
+				sum += hash(array[i]);
+				mixedSum += mixedHash(array[i]);
+			}
+			sums[c] = sum;
+			mixedSums[c] = mixedSum;
+		});
+		long sum = 0;
+		long mixedSum = 0;
+		for (int c = 0; c < chunks; c++) {
+			sum += sums[c];
+			mixedSum += mixedSums[c];
+		}
+		return new Fingerprint(array.length, sum, mixedSum);
+	}
+
+	/**
+	 * firstUnsorted finds the first index whose value is smaller than the value before it, checking in parallel.
+	 * @param array This is the array.
+	 * @return int The index, or -1 if the array is sorted.
+	 */
+	public static int firstUnsorted(final int[] array) {
+		int chunks = (array.length + CHUNK - 1) / CHUNK;
+		return IntStream.range(0, chunks).parallel().map(c -> {
+			int high = Math.min((c + 1) * CHUNK, array.length);
+			// Each chunk also checks the pair that straddles its start.
+			for (int i = Math.max(1, c * CHUNK); i < high; i++) {
+				if (array[i-1] > array[i]) {
+					return i;
+				}
+			}
+			return Integer.MAX_VALUE;
+		}).filter(i -> i != Integer.MAX_VALUE).min().orElse(-1);
+	}
+
+	/**
+	 * isSorted checks in parallel whether the array is in ascending order.
+	 * @param array This is the array.
+	 * @return boolean if the array is sorted
+	 */
+	public static boolean isSorted(int[] array) {
+		return firstUnsorted(array) < 0;
+	}
+
+	/**
+	 * verify checks that a sorted array is in order and holds the same values it held before the sort.
+	 * @param array This is the sorted array.
+	 * @param before This is the fingerprint taken before the sort.
+	 */
+	public static void verify(int[] array, Fingerprint before) {
+		int index = firstUnsorted(array);
+		if (index >= 0) {
+			throw new IllegalStateException("Error: the array is out of order at index " + index + ".");
+		}
+		check(before, fingerprint(array));
+	}
+
+	/**
+	 * scan streams an off-heap array through an Accumulator.
+	 * @param array This is the array.
+	 * @return Accumulator The fingerprint and order of the array.
+	 */
+	public static Accumulator scan(OffHeapIntArray array) {
+		Accumulator accumulator = new Accumulator();
+		long n = array.length();
+		for (long i = 0; i < n; i++) {
+			accumulator.accept(array.get(i));
+		}
+		return accumulator;
+	}
+
+	/**
+	 * scan streams a file of big-endian ints, the layout ExternalSort uses, through an Accumulator.
+	 * @param file This is the file.
+	 * @return Accumulator The fingerprint and order of the file.
+	 * @throws IOException Error when the file can't be read or isn't a whole number of ints.
+	 */
+	public static Accumulator scan(Path file) throws IOException {
+		Accumulator accumulator = new Accumulator();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() % Integer.BYTES != 0) {
+				throw new IOException("Error: " + file + " is not a whole number of ints.");
+			}
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+			while (channel.read(buffer) >= 0) {
+				buffer.flip();
+				while (buffer.remaining() >= Integer.BYTES) {
+					accumulator.accept(buffer.getInt());
+				}
+				buffer.compact();
+			}
+		}
+		return accumulator;
+	}
+
+	/**
+	 * verify checks that an off-heap array is in order and holds the same values it held before the sort.
+	 * @param array This is the sorted array.
+	 * @param before This is the fingerprint taken before the sort, from scan(array).fingerprint().
+	 */
+	public static void verify(OffHeapIntArray array, Fingerprint before) {
+		verify(scan(array), before);
+	}
+
+	/**
+	 * verify checks that a file is in order and holds the same values as the unsorted input.
+	 * @param file This is the sorted file.
+	 * @param before This is the fingerprint of the input, from scan(input).fingerprint().
+	 * @throws IOException Error when the file can't be read.
+	 */
+	public static void verify(Path file, Fingerprint before) throws IOException {
+		verify(scan(file), before);
+	}
+
+	/**
+	 * verify checks the result of a streaming scan against the fingerprint taken before the sort.
+	 * @param after This is the accumulator that the sorted values were streamed through.
+	 * @param before This is the fingerprint taken before the sort.
+	 */
+	public static void verify(Accumulator after, Fingerprint before) {
+		if (!after.isSorted()) {
+			throw new IllegalStateException("Error: the values are out of order at position " + after.firstUnsorted() + ".");
+		}
+		check(before, after.fingerprint());
+	}
+
+	private static void check(Fingerprint before, Fingerprint after) {
+		if (!before.equals(after)) {
+			throw new IllegalStateException("Error: the sort lost, duplicated or changed values. Before: " + before
+					+ ", after: " + after + ".");
+		}
+	}
+
+	/**
+	 * hash mixes a value with the SplitMix64 finalizer.
+	 */
+	private static long hash(int value) {
+		long z = value + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * mixedHash mixes a value with the MurmurHash3 finalizer and a different seed, independent of hash.
+	 */
+	private static long mixedHash(int value) {
+		long z = value ^ 0xC2B2AE3D27D4EB4FL;
+		z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+		z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return z ^ (z >>> 33);
+	}
+}
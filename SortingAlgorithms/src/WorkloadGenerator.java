@@ -0,0 +1,229 @@
+/**
+ * WorkloadGenerator.java fills int arrays with the input distributions that matter for sort performance.
+ * Arrays are filled in parallel in fixed size chunks. Each chunk gets its own SplittableRandom, split from
+ * one seeded root in chunk order, so a given seed produces the same array no matter how many threads run.
+ *
+ * @author Asher Muse
+ * @version 1.0
+ * @since 2026-10-18
+ */
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+public class WorkloadGenerator {
+
+	/**
+	 * Distribution lists the supported input shapes.
+	 */
+	public enum Distribution {
+		/** Uniform random values in [0, 1000000000), like the ArraySorting(size) constructor. */
+		UNIFORM,
+		/** 0, 1, 2 ... n-1. */
+		SORTED,
+		/** Sorted, then about 1% of positions swapped with one at most NEARLY_SORTED_DISTANCE away. */
+		NEARLY_SORTED,
+		/** n, n-1 ... 1. */
+		REVERSE,
+		/** Repeated ascending runs of SAWTOOTH_PERIOD values. */
+		SAWTOOTH,
+		/** Ascending to the middle, then descending. */
+		ORGAN_PIPE,
+		/** Uniform random values from only FEW_UNIQUE_VALUES distinct keys. */
+		FEW_UNIQUE,
+		/** Values 1 ... n drawn with Zipf's law, so small values repeat heavily. */
+		ZIPF,
+		/** Every value the same. */
+		ALL_EQUAL;
+
+		/**
+		 * parse finds a distribution by name, ignoring case and underscores, so "fewUnique" and "FEW_UNIQUE" both work.
+		 * @param name This is the name of the distribution.
+		 * @return Distribution The matching distribution.
+		 */
+		public static Distribution parse(String name) {
+			String key = name.replace("_", "");
+			for (Distribution distribution : values()) {
+				if (distribution.name().replace("_", "").equalsIgnoreCase(key)) {
+					return distribution;
+				}
+			}
+			throw new IllegalArgumentException("Error: unknown distribution " + name);
+		}
+	}
+
+	// Number of elements filled by one task. Fixed so the output doesn't depend on the thread count.
+	private static final int CHUNK = 1 << 16;
+
+	private static final int UNIFORM_BOUND = 1000000000;
+	private static final int SAWTOOTH_PERIOD = 1 << 10;
+	private static final int NEARLY_SORTED_DISTANCE = 16;
+	private static final int FEW_UNIQUE_VALUES = 16;
+	private static final double ZIPF_EXPONENT = 1.1;
+
+	/**
+	 * generate builds a new array of the given distribution.
+	 * @param distribution This is the distribution of the values.
+	 * @param size This is the size of the array.
+	 * @param seed This is the seed. The same seed always gives the same array.
+	 * @return int[] The generated array.
+	 */
+	public static int[] generate(Distribution distribution, int size, long seed) {
+		int[] array = new int[size];
+		fill(array, distribution, seed);
+		return array;
+	}
+
+	/**
+	 * fill overwrites an array with values of the given distribution, using every available processor.
+	 * @param array This is the array to fill.
+	 * @param distribution This is the distribution of the values.
+	 * @param seed This is the seed. The same seed always gives the same array.
+	 */
+	public static void fill(final int[] array, final Distribution distribution, long seed) {
+		int chunks = (array.length + CHUNK - 1) / CHUNK;
+		final SplittableRandom[] randoms = new SplittableRandom[chunks];
+		SplittableRandom root = new SplittableRandom(seed);
+		for (int c = 0; c < chunks; c++) {
+			randoms[c] = root.split();
+		}
+		final ZipfSampler zipf = distribution == Distribution.ZIPF ? new ZipfSampler(Math.max(array.length, 1), ZIPF_EXPONENT) : null;
+		final int constant = (int) (seed % UNIFORM_BOUND);
+		IntStream.range(0, chunks).parallel().forEach(c -> {
+			int low = c * CHUNK;
+			int high = Math.min(low + CHUNK, array.length);
+			fillChunk(array, low, high, distribution, randoms[c], zipf, constant);
+		});
+	}
+
+	/**
+	 * fillChunk fills array[low, high) with one chunk's share of the distribution.
+	 */
+	private static void fillChunk(int[] array, int low, int high, Distribution distribution, SplittableRandom rand,
+			ZipfSampler zipf, int constant) {
+		int n = array.length;
+		switch (distribution) {
+			case UNIFORM:
+				for (int i = low; i < high; i++) {
+					array[i] = rand.nextInt(UNIFORM_BOUND);
+				}
+				break;
+			case SORTED:
+				for (int i = low; i < high; i++) {
+					array[i] = i;
+				}
+				break;
+			case NEARLY_SORTED:
+				for (int i = low; i < high; i++) {
+					array[i] = i;
+				}
+				// Swaps stay inside the chunk so that chunks never touch each other's elements.
+				for (int k = 0; k < (high - low) / 100; k++) {
+					int x = low + rand.nextInt(high - low);
+					int y = x + rand.nextInt(2 * NEARLY_SORTED_DISTANCE + 1) - NEARLY_SORTED_DISTANCE;
+					y = Math.max(low, Math.min(high - 1, y));
+					int temp = array[x];
+					array[x] = array[y];
+					array[y] = temp;
+				}
+				break;
+			case REVERSE:
+				for (int i = low; i < high; i++) {
+					array[i] = n - i;
+				}
+				break;
+			case SAWTOOTH:
+				for (int i = low; i < high; i++) {
+					array[i] = i % SAWTOOTH_PERIOD;
+				}
+				break;
+			case ORGAN_PIPE:
+				for (int i = low; i < high; i++) {
+					array[i] = i < n / 2 ? i : n - i;
+				}
+				break;
+			case FEW_UNIQUE:
+				for (int i = low; i < high; i++) {
+					array[i] = rand.nextInt(FEW_UNIQUE_VALUES);
+				}
+				break;
+			case ZIPF:
+				for (int i = low; i < high; i++) {
+					array[i] = zipf.sample(rand);
+				}
+				break;
+			case ALL_EQUAL:
+				for (int i = low; i < high; i++) {
+					array[i] = constant;
+				}
+				break;
+			default:
+				throw new IllegalArgumentException("Error: unknown distribution " + distribution);
+		}
+	}
+
+	/**
+	 * ZipfSampler draws values 1 ... n where value k has probability proportional to 1 / k^s.
+	 * It uses Hormann and Derflinger's rejection-inversion method, which takes O(1) time per sample
+	 * with no tables, so it works for any n.
+	 */
+	private static class ZipfSampler {
+		private final int n;
+		private final double exponent;
+		private final double hIntegralX1;
+		private final double hIntegralN;
+		private final double s;
+
+		ZipfSampler(int n, double exponent) {
+			this.n = n;
+			this.exponent = exponent;
+			this.hIntegralX1 = hIntegral(1.5) - 1;
+			this.hIntegralN = hIntegral(n + 0.5);
+			this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+		}
+
+		int sample(SplittableRandom rand) {
+			while (true) {
+				double u = hIntegralN + rand.nextDouble() * (hIntegralX1 - hIntegralN);
+				double x = hIntegralInverse(u);
+				int k = (int) (x + 0.5);
+				if (k < 1) {
+					k = 1;
+				}
+				else if (k > n) {
+					k = n;
+				}
+				if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+					return k;
+				}
+			}
+		}
+
+		private double hIntegral(double x) {
+			double logX = Math.log(x);
+			return helper2((1 - exponent) * logX) * logX;
+		}
+
+		private double h(double x) {
+			return Math.exp(-exponent * Math.log(x));
+		}
+
+		private double hIntegralInverse(double x) {
+			double t = x * (1 - exponent);
+			if (t < -1) {
+				t = -1;
+			}
+			return Math.exp(helper1(t) * x);
+		}
+
+		// log(1 + x) / x, accurate near 0.
+		private static double helper1(double x) {
+			return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+		}
+
+		// (exp(x) - 1) / x, accurate near 0.
+		private static double helper2(double x) {
+			return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+		}
+	}
+}